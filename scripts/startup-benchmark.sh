@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+#
+# Time from JVM launch to the first successful request, with the default fat
+# jar and with the CDS + AOT build.
+#
+#   ./mvnw -Pcds package -DskipTests
+#   scripts/startup-benchmark.sh [runs]
+#
+# Needs the same database settings as the app itself (DATABASE_URL etc.).
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/api/courses"
+FAT_JAR=target/course-platform-api-1.0.0.jar
+CDS_DIR=target/cds
+LOG=${TMPDIR:-/tmp}/startup-benchmark.log
+
+measure() {
+    local label=$1
+    shift
+    local total=0
+    for run in $(seq 1 "$RUNS"); do
+        local start
+        start=$(date +%s%N)
+        "$@" > "$LOG" 2>&1 &
+        local pid=$!
+        until curl -sf -o /dev/null "$URL"; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "$label: application exited, see $LOG" >&2
+                exit 1
+            fi
+            sleep 0.05
+        done
+        local elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+        echo "$label run $run: ${elapsed} ms"
+        total=$((total + elapsed))
+    done
+    echo "$label average: $((total / RUNS)) ms"
+}
+
+run_cds() {
+    # The archive is only used when the class path matches the training run's
+    cd "$CDS_DIR"
+    exec java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar course-platform-api-1.0.0-cds.jar
+}
+
+measure "default" java -jar "$FAT_JAR"
+measure "cds+aot" run_cds
@@ -0,0 +1,65 @@
+package com.courseplatform.benchmark;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Enrollment;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.SubtopicProgress;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.springframework.orm.jpa.persistenceunit.MutablePersistenceUnitInfo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A session factory over the application's entities for benchmarks that go
+ * through Hibernate, bootstrapped the way Spring Boot does it (as a JPA
+ * persistence unit) with a fresh schema. Hibernate's native bootstrap only
+ * connects through the deprecated {@code hibernate.connection.*} settings.
+ */
+public final class BenchmarkSessionFactory {
+
+    private static final List<Class<?>> ENTITIES = List.of(
+            Course.class, Topic.class, Subtopic.class, User.class, Enrollment.class, SubtopicProgress.class);
+
+    private BenchmarkSessionFactory() {
+    }
+
+    /**
+     * @param settings Hibernate settings on top of the connection, schema
+     *                 creation and statistics
+     */
+    public static SessionFactory create(String jdbcUrl, Map<String, Object> settings) {
+        MutablePersistenceUnitInfo persistenceUnit = new MutablePersistenceUnitInfo() {
+            @Override
+            public ClassLoader getClassLoader() {
+                return BenchmarkSessionFactory.class.getClassLoader();
+            }
+
+            @Override
+            public ClassLoader getNewTempClassLoader() {
+                // Only needed for bytecode enhancement, which the benchmarks don't use
+                return null;
+            }
+        };
+        persistenceUnit.setPersistenceUnitName("benchmark");
+        persistenceUnit.setExcludeUnlistedClasses(true);
+        ENTITIES.forEach(entity -> persistenceUnit.addManagedClassName(entity.getName()));
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.JAKARTA_JDBC_URL, jdbcUrl);
+        properties.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        // User's entity listener needs Spring; no users are written here
+        properties.put(AvailableSettings.JPA_CALLBACKS_ENABLED, "false");
+        properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+        properties.putAll(settings);
+
+        return new HibernatePersistenceProvider()
+                .createContainerEntityManagerFactory(persistenceUnit, properties)
+                .unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.courseplatform.benchmark;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared setup for benchmarks over a synthetic catalog: the catalog shape
+ * parameters (override with {@code -p courses=1000} etc.) and run settings
+ * short enough for a laptop. Use more forks and iterations
+ * ({@code -f 3 -wi 5 -i 10}) when comparing two builds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class CatalogBenchmark {
+
+    @Param("100")
+    public int courses;
+
+    @Param("10")
+    public int topicsPerCourse;
+
+    @Param("10")
+    public int subtopicsPerTopic;
+
+    @Param("2000")
+    public int contentLength;
+
+    protected SyntheticCatalog generateCatalog() {
+        return SyntheticCatalog.generate(courses, topicsPerCourse, subtopicsPerTopic, contentLength);
+    }
+}
@@ -0,0 +1,57 @@
+package com.courseplatform.benchmark;
+
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the database side of a service, so benchmarks
+ * measure the service code rather than JDBC.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * A repository whose listed methods (by name) answer from the given
+     * functions. Any other repository method fails, so a benchmark cannot
+     * silently measure a code path it did not set up.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "stub " + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(
+                                type.getSimpleName() + "." + method.getName() + " is not stubbed");
+                    }
+                    return answer.apply(args);
+            }
+        });
+    }
+
+    /**
+     * Runs the callback directly, without a transaction manager
+     */
+    public static TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(new SimpleTransactionStatus());
+            }
+        };
+    }
+}
@@ -0,0 +1,153 @@
+package com.courseplatform.benchmark;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CourseRepositoryCustom;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * An in-memory course catalog of a given shape, built from entities the same
+ * way the importer would store them. Text is pseudo-random filler with real
+ * subject terms ({@link #TERMS}) mixed in, so searches for those terms have
+ * matches spread across the catalog. The same arguments always produce the
+ * same catalog.
+ */
+public final class SyntheticCatalog {
+
+    public static final String[] TERMS = {
+            "velocity", "acceleration", "momentum", "energy", "force", "newton", "gravity", "friction",
+            "vector", "scalar", "derivative", "integral", "limit", "function", "rate of change",
+            "equation", "matrix", "probability", "variable", "graph"
+    };
+
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ne", "ru", "ta", "sel", "vor", "din", "pra", "qu", "es", "on", "li", "bar", "tem"
+    };
+
+    private final List<Course> courses;
+    private final Random random;
+    private final String[] fillerWords;
+
+    private SyntheticCatalog(long seed) {
+        this.random = new Random(seed);
+        this.courses = new ArrayList<>();
+        this.fillerWords = new String[500];
+        for (int i = 0; i < fillerWords.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            fillerWords[i] = word.toString();
+        }
+    }
+
+    /**
+     * @param contentLength approximate length of each subtopic's content, in characters
+     */
+    public static SyntheticCatalog generate(int courses, int topicsPerCourse, int subtopicsPerTopic,
+                                            int contentLength) {
+        SyntheticCatalog catalog = new SyntheticCatalog(42);
+        for (int c = 0; c < courses; c++) {
+            Course course = Course.builder()
+                    .id("course-" + c)
+                    .title(catalog.text(30))
+                    .description(catalog.text(120))
+                    .build();
+            for (int t = 0; t < topicsPerCourse; t++) {
+                Topic topic = Topic.builder()
+                        .id(course.getId() + "-topic-" + t)
+                        .title(catalog.text(25))
+                        .orderIndex(t)
+                        .build();
+                course.addTopic(topic);
+                for (int s = 0; s < subtopicsPerTopic; s++) {
+                    topic.addSubtopic(Subtopic.builder()
+                            .id(topic.getId() + "-subtopic-" + s)
+                            .title(catalog.text(25))
+                            .content(catalog.text(contentLength))
+                            .orderIndex(s)
+                            .build());
+                }
+            }
+            catalog.courses.add(course);
+        }
+        return catalog;
+    }
+
+    public List<Course> courses() {
+        return courses;
+    }
+
+    public Course course(int index) {
+        return courses.get(index);
+    }
+
+    /**
+     * The course's topics in order, as {@code TopicRepository} returns them
+     */
+    public List<Topic> topics(Course course) {
+        return course.getTopics().stream()
+                .sorted(Comparator.comparing(Topic::getOrderIndex))
+                .toList();
+    }
+
+    /**
+     * The course's subtopics grouped by topic id, each group in order
+     */
+    public Map<String, List<Subtopic>> subtopicsByTopic(Course course) {
+        Map<String, List<Subtopic>> byTopic = new LinkedHashMap<>();
+        for (Topic topic : topics(course)) {
+            byTopic.put(topic.getId(), topic.getSubtopics().stream()
+                    .sorted(Comparator.comparing(Subtopic::getOrderIndex))
+                    .toList());
+        }
+        return byTopic;
+    }
+
+    /**
+     * All of the course's subtopics in catalog order
+     */
+    public List<Subtopic> subtopics(Course course) {
+        return subtopicsByTopic(course).values().stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Replays the catalog the way {@code CourseRepository.forEachSearchableText}
+     * streams it: every course, then every topic followed by its subtopics
+     */
+    public void forEachSearchableText(CourseRepositoryCustom.SearchableTextHandler handler) {
+        courses.forEach(course -> handler.course(course.getId(), course.getTitle(), course.getDescription()));
+        for (Course course : courses) {
+            Map<String, List<Subtopic>> subtopicsByTopic = subtopicsByTopic(course);
+            for (Topic topic : topics(course)) {
+                handler.topic(course.getId(), topic.getTitle());
+                subtopicsByTopic.get(topic.getId()).forEach(subtopic ->
+                        handler.subtopic(subtopic.getId(), subtopic.getTitle(), subtopic.getContent()));
+            }
+        }
+    }
+
+    private String text(int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            // Roughly one word in eight is a subject term
+            text.append(random.nextInt(8) == 0
+                    ? TERMS[random.nextInt(TERMS.length)]
+                    : fillerWords[random.nextInt(fillerWords.length)]);
+        }
+        return text.toString();
+    }
+}
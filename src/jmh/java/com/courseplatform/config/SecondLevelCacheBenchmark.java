@@ -0,0 +1,141 @@
+package com.courseplatform.config;
+
+import com.courseplatform.benchmark.BenchmarkSessionFactory;
+import com.courseplatform.benchmark.CatalogBenchmark;
+import com.courseplatform.benchmark.SyntheticCatalog;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.cache.CacheManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalog reads through Hibernate against an in-memory H2 database (PostgreSQL
+ * mode), with and without the second-level cache. Each operation opens its own
+ * session, as a request would. The time per operation is mostly H2 and so
+ * flatters the uncached case; the statements per operation, printed after the
+ * last iteration, are the database round trips a real server would make.
+ */
+public class SecondLevelCacheBenchmark extends CatalogBenchmark {
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private SessionFactory sessionFactory;
+    private CacheManager cacheManager;
+    private Statistics statistics;
+    private List<String> courseIds;
+    private int next;
+    private long operations;
+    private String roundTrips;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, "100");
+        settings.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, String.valueOf(secondLevelCache));
+        settings.put(AvailableSettings.USE_QUERY_CACHE, String.valueOf(secondLevelCache));
+        if (secondLevelCache) {
+            settings.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            cacheManager = SecondLevelCacheConfig.createCacheManager(20_000);
+            settings.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        }
+        sessionFactory = BenchmarkSessionFactory.create(
+                "jdbc:h2:mem:catalog-" + secondLevelCache + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", settings);
+        statistics = sessionFactory.getStatistics();
+
+        SyntheticCatalog catalog = generateCatalog();
+        sessionFactory.inTransaction(session -> catalog.courses().forEach(session::persist));
+        courseIds = catalog.courses().stream().map(Course::getId).toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        operations = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void recordRoundTrips() {
+        roundTrips = String.format("%.2f statements per operation (%d over %d operations)",
+                (double) statistics.getPrepareStatementCount() / operations,
+                statistics.getPrepareStatementCount(), operations);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println("secondLevelCache=" + secondLevelCache + ": " + roundTrips);
+        sessionFactory.close();
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+
+    /**
+     * What {@code CourseService.getCourseById} loads: the course, its ordered
+     * topics and their ordered subtopics
+     */
+    @Benchmark
+    public int courseDetail() {
+        String courseId = nextCourseId();
+        return sessionFactory.fromSession(session -> {
+            session.find(Course.class, courseId);
+            List<String> topicIds = session.createSelectionQuery(
+                            "FROM Topic t WHERE t.course.id = :courseId ORDER BY t.orderIndex", Topic.class)
+                    .setParameter("courseId", courseId)
+                    .setCacheable(true)
+                    .getResultList().stream()
+                    .map(Topic::getId)
+                    .toList();
+            return session.createSelectionQuery(
+                            "FROM Subtopic s WHERE s.topic.id IN :topicIds ORDER BY s.orderIndex", Subtopic.class)
+                    .setParameter("topicIds", topicIds)
+                    .setCacheable(true)
+                    .getResultList().size();
+        });
+    }
+
+    /**
+     * A walk over the mapped {@code topics} and {@code subtopics} collections,
+     * as the search index rebuild does
+     */
+    @Benchmark
+    public int courseTree() {
+        String courseId = nextCourseId();
+        return sessionFactory.fromSession(session -> session.find(Course.class, courseId).getTopics().stream()
+                .mapToInt(topic -> topic.getSubtopics().size())
+                .sum());
+    }
+
+    /**
+     * The subtopic count {@code ProgressService.getProgress} needs
+     */
+    @Benchmark
+    public Long countSubtopics() {
+        String courseId = nextCourseId();
+        return sessionFactory.fromSession(session -> session.createSelectionQuery(
+                        "SELECT COUNT(s) FROM Subtopic s WHERE s.topic.course.id = :courseId", Long.class)
+                .setParameter("courseId", courseId)
+                .setCacheable(true)
+                .getSingleResult());
+    }
+
+    private String nextCourseId() {
+        operations++;
+        next = (next + 1) % courseIds.size();
+        return courseIds.get(next);
+    }
+}
@@ -0,0 +1,77 @@
+package com.courseplatform.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation. {@code validateRepeatedToken} is the common
+ * case of a client sending the same token again (answered from the verified
+ * token cache); {@code validateNewToken} cycles through more tokens than the
+ * cache holds, so every call parses and verifies the signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtTokenProviderBenchmark {
+
+    private static final int TOKENS = 1024;
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider nonCachingProvider;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cachingProvider = provider(10_000);
+        nonCachingProvider = provider(1);
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = cachingProvider.generateToken("user" + i + "@example.com");
+        }
+        cachingProvider.validateAndGetClaims(tokens[0]);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingProvider.generateToken("user@example.com");
+    }
+
+    @Benchmark
+    public Optional<Claims> validateRepeatedToken() {
+        return cachingProvider.validateAndGetClaims(tokens[0]);
+    }
+
+    @Benchmark
+    public Optional<Claims> validateNewToken() {
+        next = (next + 1) % TOKENS;
+        return nonCachingProvider.validateAndGetClaims(tokens[next]);
+    }
+
+    private static JwtTokenProvider provider(int verifiedCacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtSecret", "benchmark-secret-key-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        provider.init();
+        return provider;
+    }
+}
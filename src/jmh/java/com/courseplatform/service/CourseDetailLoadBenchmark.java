@@ -0,0 +1,187 @@
+package com.courseplatform.service;
+
+import com.courseplatform.benchmark.BenchmarkSessionFactory;
+import com.courseplatform.benchmark.SyntheticCatalog;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.graph.RootGraph;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Loading one large course for the detail endpoint through Hibernate against
+ * an in-memory H2 database (PostgreSQL mode): the entity-graph query that
+ * joined topics and subtopics onto the course, against the level-by-level
+ * queries {@code CourseService.getCourseById} runs now. H2 hands rows over in
+ * process, so the joined query's repeated columns cost far less here than on
+ * the wire; the characters each result set carries, printed after the run
+ * with the statements per operation, show what a real server would send. To
+ * measure that, point {@code jdbcUrl} at an empty PostgreSQL database, e.g.
+ * {@code -p jdbcUrl=jdbc:postgresql://localhost:5432/bench?user=postgres}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CourseDetailLoadBenchmark {
+
+    private static final int COURSES = 4;
+
+    @Param("jdbc:h2:mem:course-detail;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+    public String jdbcUrl;
+
+    @Param("40")
+    public int topicsPerCourse;
+
+    @Param("25")
+    public int subtopicsPerTopic;
+
+    @Param("4000")
+    public int contentLength;
+
+    @Param("8000")
+    public int descriptionLength;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private List<String> courseIds;
+    private int next;
+    private long operations;
+    private String roundTrips;
+    private long singleJoinCharacters;
+    private long levelByLevelCharacters;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = BenchmarkSessionFactory.create(jdbcUrl,
+                Map.of(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false"));
+        statistics = sessionFactory.getStatistics();
+
+        SyntheticCatalog catalog = SyntheticCatalog.generate(COURSES, topicsPerCourse, subtopicsPerTopic,
+                contentLength);
+        Course course = catalog.course(0);
+        for (Course each : catalog.courses()) {
+            // Long enough that repeating it on every joined row shows
+            each.setDescription(catalog.subtopics(each).get(0).getContent()
+                    .repeat(descriptionLength / contentLength + 1)
+                    .substring(0, descriptionLength));
+        }
+        sessionFactory.inTransaction(session -> catalog.courses().forEach(session::persist));
+        courseIds = catalog.courses().stream().map(Course::getId).toList();
+
+        long courseCharacters = course.getId().length() + course.getTitle().length()
+                + course.getDescription().length();
+        for (Topic topic : catalog.topics(course)) {
+            long topicCharacters = topic.getId().length() + topic.getTitle().length();
+            levelByLevelCharacters += topicCharacters;
+            for (Subtopic subtopic : catalog.subtopicsByTopic(course).get(topic.getId())) {
+                long subtopicCharacters = subtopic.getId().length() + subtopic.getTitle().length()
+                        + subtopic.getContent().length();
+                singleJoinCharacters += courseCharacters + topicCharacters + subtopicCharacters;
+                levelByLevelCharacters += subtopicCharacters;
+            }
+        }
+        levelByLevelCharacters += courseCharacters;
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        operations = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void recordRoundTrips() {
+        roundTrips = String.format("%.2f statements per operation", (double) statistics.getPrepareStatementCount()
+                / operations);
+    }
+
+    @TearDown
+    public void tearDown(BenchmarkParams params) {
+        boolean singleJoin = params.getBenchmark().endsWith("singleJoin");
+        System.out.println();
+        System.out.printf("%s: %s, about %,d characters of result set per course%n",
+                singleJoin ? "singleJoin" : "levelByLevel", roundTrips,
+                singleJoin ? singleJoinCharacters : levelByLevelCharacters);
+        sessionFactory.close();
+    }
+
+    /**
+     * The removed {@code findByIdWithTopicsAndSubtopics}: one query with an
+     * entity graph over {@code topics} and {@code topics.subtopics}, one row
+     * per subtopic
+     */
+    @Benchmark
+    public int singleJoin() {
+        String courseId = nextCourseId();
+        return sessionFactory.fromSession(session -> {
+            RootGraph<Course> graph = session.createEntityGraph(Course.class);
+            graph.addSubGraph("topics").addAttributeNodes("subtopics");
+            Course course = session.createSelectionQuery("FROM Course c WHERE c.id = :courseId", Course.class)
+                    .setParameter("courseId", courseId)
+                    .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, graph)
+                    .getSingleResult();
+            return course.getTopics().stream()
+                    .flatMap(topic -> topic.getSubtopics().stream())
+                    .mapToInt(subtopic -> subtopic.getContent().length())
+                    .sum();
+        });
+    }
+
+    /**
+     * What {@code CourseService.getCourseById} loads now: the course, its
+     * ordered topics and their ordered subtopics, grouped in memory
+     */
+    @Benchmark
+    public int levelByLevel() {
+        String courseId = nextCourseId();
+        return sessionFactory.fromSession(session -> {
+            session.find(Course.class, courseId);
+            List<String> topicIds = session.createSelectionQuery(
+                            "FROM Topic t WHERE t.course.id = :courseId ORDER BY t.orderIndex", Topic.class)
+                    .setParameter("courseId", courseId)
+                    .getResultList().stream()
+                    .map(Topic::getId)
+                    .toList();
+            Map<String, List<Subtopic>> subtopicsByTopic = session.createSelectionQuery(
+                            "FROM Subtopic s WHERE s.topic.id IN :topicIds ORDER BY s.orderIndex", Subtopic.class)
+                    .setParameter("topicIds", topicIds)
+                    .getResultList().stream()
+                    .collect(Collectors.groupingBy(subtopic -> subtopic.getTopic().getId()));
+            return subtopicsByTopic.values().stream()
+                    .flatMap(List::stream)
+                    .mapToInt(subtopic -> subtopic.getContent().length())
+                    .sum();
+        });
+    }
+
+    private String nextCourseId() {
+        operations++;
+        next = (next + 1) % courseIds.size();
+        return courseIds.get(next);
+    }
+}
@@ -0,0 +1,55 @@
+package com.courseplatform.service;
+
+import com.courseplatform.benchmark.CatalogBenchmark;
+import com.courseplatform.benchmark.SyntheticCatalog;
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Building a course detail response from already loaded entities, and
+ * serializing it with an ObjectMapper configured the way Spring Boot
+ * configures the application's. Course size follows
+ * {@code topicsPerCourse}, {@code subtopicsPerTopic} and {@code contentLength}.
+ */
+public class CourseServiceBenchmark extends CatalogBenchmark {
+
+    private CourseService courseService;
+    private ObjectMapper objectMapper;
+    private Course course;
+    private List<Topic> topics;
+    private Map<String, List<Subtopic>> subtopicsByTopic;
+    private CourseDetailResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        // mapToCourseDetail only maps; none of the collaborators are used
+        courseService = new CourseService(null, null, null, null, objectMapper);
+
+        SyntheticCatalog catalog = generateCatalog();
+        course = catalog.course(0);
+        topics = catalog.topics(course);
+        subtopicsByTopic = catalog.subtopicsByTopic(course);
+        response = courseService.mapToCourseDetail(course, topics, subtopicsByTopic);
+    }
+
+    @Benchmark
+    public CourseDetailResponse mapToCourseDetail() {
+        return courseService.mapToCourseDetail(course, topics, subtopicsByTopic);
+    }
+
+    @Benchmark
+    public byte[] serializeCourseDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
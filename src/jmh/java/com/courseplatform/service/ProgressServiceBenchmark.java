@@ -0,0 +1,118 @@
+package com.courseplatform.service;
+
+import com.courseplatform.benchmark.CatalogBenchmark;
+import com.courseplatform.benchmark.Stubs;
+import com.courseplatform.benchmark.SyntheticCatalog;
+import com.courseplatform.dto.response.ProgressResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Enrollment;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.SubtopicProgress;
+import com.courseplatform.repository.EnrollmentRepository;
+import com.courseplatform.repository.SubtopicProgressRepository;
+import com.courseplatform.repository.SubtopicProgressRepositoryCustom.NewCompletion;
+import com.courseplatform.repository.SubtopicRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Progress for one enrollment, with the repositories answering from memory:
+ * the percentage calculation, completed item mapping and, with
+ * {@code pending > 0}, merging completions still queued for write-behind.
+ * Only {@code topicsPerCourse} and {@code subtopicsPerTopic} matter here.
+ */
+public class ProgressServiceBenchmark extends CatalogBenchmark {
+
+    private static final Long USER_ID = 1L;
+    private static final Long ENROLLMENT_ID = 1L;
+
+    @Param("50")
+    public int completedPercent;
+
+    @Param({"0", "10"})
+    public int pending;
+
+    private ProgressService progressService;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = generateCatalog();
+        Course course = catalog.course(0);
+        List<Subtopic> subtopics = catalog.subtopics(course);
+        int completed = subtopics.size() * completedPercent / 100;
+        Instant now = Instant.now();
+
+        List<SubtopicProgress> stored = subtopics.subList(0, completed).stream()
+                .map(subtopic -> SubtopicProgress.builder()
+                        .subtopic(subtopic)
+                        .completedAt(now.minusSeconds(3600))
+                        .build())
+                .toList();
+        List<NewCompletion> queued = subtopics.subList(completed, Math.min(subtopics.size(), completed + pending))
+                .stream()
+                .map(subtopic -> new NewCompletion(USER_ID, subtopic.getId(), course.getId(), now))
+                .toList();
+        Enrollment enrollment = Enrollment.builder()
+                .id(ENROLLMENT_ID)
+                .course(course)
+                .enrolledAt(now.minusSeconds(86400))
+                .completedSubtopics(completed)
+                .lastActivityAt(now.minusSeconds(3600))
+                .build();
+
+        EnrollmentRepository enrollmentRepository = Stubs.repository(EnrollmentRepository.class,
+                Map.of("findByIdAndUserIdWithCourse", args -> Optional.of(enrollment)));
+        SubtopicProgressRepository progressRepository = Stubs.repository(SubtopicProgressRepository.class,
+                Map.of("findCompletedByUserIdAndCourseId", args -> stored));
+        SubtopicRepository subtopicRepository = Stubs.repository(SubtopicRepository.class,
+                Map.of("countByCourseId", args -> subtopics.size(),
+                        "findCourseIdsBySubtopicIds", args -> subtopics.stream()
+                                .filter(subtopic -> ((Collection<?>) args[0]).contains(subtopic.getId()))
+                                .map(subtopic -> subtopicCourse(subtopic, course))
+                                .toList()));
+
+        // Reports a fixed set of queued completions; never started, so nothing is written
+        ProgressWriteBehind writeBehind = new ProgressWriteBehind(progressRepository, Stubs.transactionTemplate(),
+                false, 1, 1, 1, 0) {
+            @Override
+            public List<NewCompletion> pendingFor(Long userId) {
+                return queued;
+            }
+        };
+
+        progressService = new ProgressService(progressRepository, subtopicRepository, enrollmentRepository,
+                null, writeBehind, Stubs.transactionTemplate(), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public ProgressResponse getProgress() {
+        return progressService.getProgress(USER_ID, ENROLLMENT_ID);
+    }
+
+    private static SubtopicRepository.SubtopicCourse subtopicCourse(Subtopic subtopic, Course course) {
+        return new SubtopicRepository.SubtopicCourse() {
+            @Override
+            public String getSubtopicId() {
+                return subtopic.getId();
+            }
+
+            @Override
+            public String getSubtopicTitle() {
+                return subtopic.getTitle();
+            }
+
+            @Override
+            public String getCourseId() {
+                return course.getId();
+            }
+        };
+    }
+}
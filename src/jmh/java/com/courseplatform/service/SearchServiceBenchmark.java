@@ -0,0 +1,50 @@
+package com.courseplatform.service;
+
+import com.courseplatform.benchmark.CatalogBenchmark;
+import com.courseplatform.benchmark.Stubs;
+import com.courseplatform.benchmark.SyntheticCatalog;
+import com.courseplatform.dto.response.SearchResponse;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.CourseRepositoryCustom;
+import com.courseplatform.search.SearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Map;
+
+/**
+ * Search over the in-memory index: candidate lookup, substring verification,
+ * scoring and snippet building. "ve" takes the short-term path, "quantum"
+ * matches nothing.
+ */
+public class SearchServiceBenchmark extends CatalogBenchmark {
+
+    @Param({"velocity", "ve", "rate of change", "quantum"})
+    public String query;
+
+    @Param("20")
+    public int limit;
+
+    private SearchIndex searchIndex;
+    private SearchService searchService;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = generateCatalog();
+        CourseRepository courseRepository = Stubs.repository(CourseRepository.class,
+                Map.of("forEachSearchableText", args -> {
+                    catalog.forEachSearchableText((CourseRepositoryCustom.SearchableTextHandler) args[0]);
+                    return null;
+                }));
+        searchIndex = new SearchIndex(courseRepository, Stubs.transactionTemplate(), Long.MAX_VALUE);
+        searchIndex.rebuild();
+        searchService = new SearchService(searchIndex, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public SearchResponse search() {
+        return searchService.search(query, limit, null);
+    }
+}
@@ -0,0 +1,90 @@
+package com.courseplatform.loadtest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes a synthetic catalog in the seed file format, for the application to
+ * import at startup. Text is made of pseudo-words with a few real terms mixed
+ * in, so searches have realistic hit rates; the same settings always produce
+ * the same catalog.
+ */
+final class CatalogGenerator {
+
+    /**
+     * Terms that appear in a fraction of subtopics
+     */
+    static final List<String> TERMS = List.of(
+            "velocity", "momentum", "equilibrium", "derivative", "photosynthesis",
+            "enzyme", "algorithm", "recursion", "inflation", "democracy");
+
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ne", "ru", "sa", "ti", "vo", "ze", "bra",
+            "cle", "dri", "fo", "gu", "ho", "ji", "pla", "que", "sto", "wy"};
+
+    private final Random random = new Random(42);
+
+    private CatalogGenerator() {
+    }
+
+    static void write(Path file, int courses, int topicsPerCourse, int subtopicsPerTopic, int contentLength)
+            throws IOException {
+        CatalogGenerator generator = new CatalogGenerator();
+        try (JsonGenerator json = new JsonFactory().createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("courses");
+            for (int c = 0; c < courses; c++) {
+                String courseId = "course-" + c;
+                json.writeStartObject();
+                json.writeStringField("id", courseId);
+                json.writeStringField("title", generator.text(30));
+                json.writeStringField("description", generator.text(120));
+                json.writeArrayFieldStart("topics");
+                for (int t = 0; t < topicsPerCourse; t++) {
+                    String topicId = courseId + "-topic-" + t;
+                    json.writeStartObject();
+                    json.writeStringField("id", topicId);
+                    json.writeStringField("title", generator.text(25));
+                    json.writeArrayFieldStart("subtopics");
+                    for (int s = 0; s < subtopicsPerTopic; s++) {
+                        json.writeStartObject();
+                        json.writeStringField("id", topicId + "-subtopic-" + s);
+                        json.writeStringField("title", generator.text(25));
+                        json.writeStringField("content", generator.text(contentLength));
+                        json.writeEndObject();
+                    }
+                    json.writeEndArray();
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private String text(int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            if (random.nextInt(40) == 0) {
+                text.append(TERMS.get(random.nextInt(TERMS.size())));
+                continue;
+            }
+            int syllables = 2 + random.nextInt(3);
+            for (int i = 0; i < syllables; i++) {
+                text.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package com.courseplatform.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Latencies and outcomes per operation. Each client thread records into its
+ * own report; {@link #merge} combines them once the run is over.
+ */
+final class LatencyReport {
+
+    private final Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+
+    void record(Operation operation, long nanos, int status) {
+        Samples operationSamples = samples.computeIfAbsent(operation, key -> new Samples());
+        operationSamples.add(nanos);
+        if (status == TrafficClient.NO_RESPONSE || (status >= 400 && status != 503)) {
+            operationSamples.errors++;
+        } else if (status == 503) {
+            operationSamples.unavailable++;
+        }
+    }
+
+    static LatencyReport merge(List<LatencyReport> reports) {
+        LatencyReport merged = new LatencyReport();
+        for (LatencyReport report : reports) {
+            report.samples.forEach((operation, operationSamples) ->
+                    merged.samples.computeIfAbsent(operation, key -> new Samples()).addAll(operationSamples));
+        }
+        return merged;
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf("%-45s %9s %9s %7s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "503", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Row row : rows(seconds)) {
+            out.printf(Locale.ROOT, "%-45s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    row.endpoint, row.requests, row.throughput, row.errors, row.unavailable,
+                    row.p50, row.p99, row.p999, row.max);
+        }
+    }
+
+    /**
+     * Appends the rows to a CSV file, writing the header if the file is new,
+     * so runs of different builds or settings can be compared side by side
+     */
+    void appendCsv(Path file, String label, double seconds) throws IOException {
+        StringBuilder csv = new StringBuilder();
+        if (!Files.exists(file)) {
+            csv.append("label,endpoint,requests,throughput,errors,unavailable,p50_ms,p99_ms,p999_ms,max_ms\n");
+        }
+        for (Row row : rows(seconds)) {
+            csv.append(String.format(Locale.ROOT, "%s,%s,%d,%.1f,%d,%d,%.3f,%.3f,%.3f,%.3f%n",
+                    label, row.endpoint, row.requests, row.throughput, row.errors, row.unavailable,
+                    row.p50, row.p99, row.p999, row.max));
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, csv, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private List<Row> rows(double seconds) {
+        List<Row> rows = new ArrayList<>();
+        Samples all = new Samples();
+        samples.forEach((operation, operationSamples) -> {
+            rows.add(new Row(operation.endpoint(), operationSamples, seconds));
+            all.addAll(operationSamples);
+        });
+        rows.add(new Row("all", all, seconds));
+        return rows;
+    }
+
+    private record Row(String endpoint, long requests, double throughput, long errors, long unavailable,
+                       double p50, double p99, double p999, double max) {
+
+        Row(String endpoint, Samples samples, double seconds) {
+            this(endpoint, samples.size, samples.size / seconds, samples.errors, samples.unavailable,
+                    samples.percentile(0.50), samples.percentile(0.99), samples.percentile(0.999),
+                    samples.percentile(1.0));
+        }
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+        private long unavailable;
+        private boolean sorted;
+
+        void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            sorted = false;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i]);
+            }
+            errors += other.errors;
+            unavailable += other.unavailable;
+        }
+
+        double percentile(double quantile) {
+            if (size == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(nanos, 0, size);
+                sorted = true;
+            }
+            int index = (int) Math.min(size - 1, Math.ceil(quantile * size) - 1);
+            return nanos[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.courseplatform.loadtest;
+
+import com.courseplatform.CourseApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Offline load test: boots the application in-process against an embedded
+ * PostgreSQL with a generated catalog, signs up virtual users and replays a
+ * weighted traffic mix from closed-loop clients, then prints throughput and
+ * latency percentiles per endpoint.
+ *
+ * <p>Options are {@code key=value} arguments (see {@link #DEFAULTS}); arguments
+ * starting with {@code --} are passed to the application as property overrides,
+ * e.g. {@code --spring.threads.virtual.enabled=true}. Run it with
+ * {@code mvn -Ploadtest verify -DskipTests -Dloadtest.args="..."}.
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        // Generated catalog
+        DEFAULTS.put("courses", "200");
+        DEFAULTS.put("topics-per-course", "8");
+        DEFAULTS.put("subtopics-per-topic", "8");
+        DEFAULTS.put("content-length", "1500");
+        // Virtual users (at least one per client) and closed-loop clients
+        DEFAULTS.put("users", "500");
+        DEFAULTS.put("concurrency", "64");
+        DEFAULTS.put("warmup-seconds", "15");
+        DEFAULTS.put("seconds", "60");
+        DEFAULTS.put("mix", TrafficMix.DEFAULT);
+        // Target an already running application instead of booting one (its catalog is used as is)
+        DEFAULTS.put("url", "");
+        // Use an existing, empty database instead of the embedded one
+        DEFAULTS.put("jdbc-url", "");
+        DEFAULTS.put("db-user", "postgres");
+        DEFAULTS.put("db-password", "");
+        // Append the results to a CSV file, under a label
+        DEFAULTS.put("csv", "");
+        DEFAULTS.put("label", "run");
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Arguments look like key=value or --property=value, got '" + arg + "'");
+            }
+            String key = arg.substring(0, equals);
+            if (key.startsWith("--")) {
+                overrides.put(key.substring(2), arg.substring(equals + 1));
+            } else if (options.containsKey(key)) {
+                options.put(key, arg.substring(equals + 1));
+            } else {
+                throw new IllegalArgumentException("Unknown option '" + key + "', expected one of " + DEFAULTS.keySet());
+            }
+        }
+
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        int users = Math.max(Integer.parseInt(options.get("users")), concurrency);
+        TrafficMix mix = TrafficMix.parse(options.get("mix"));
+
+        EmbeddedPostgres postgres = null;
+        ConfigurableApplicationContext application = null;
+        try {
+            String baseUrl = options.get("url");
+            if (baseUrl.isEmpty()) {
+                String jdbcUrl = options.get("jdbc-url");
+                if (jdbcUrl.isEmpty()) {
+                    log("Starting embedded PostgreSQL");
+                    postgres = EmbeddedPostgres.builder().start();
+                    jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+                    options.put("db-user", "postgres");
+                    options.put("db-password", "");
+                }
+                application = startApplication(options, overrides, jdbcUrl);
+                int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+                baseUrl = "http://localhost:" + port;
+            }
+
+            TrafficClient client = new TrafficClient(baseUrl.replaceAll("/+$", ""));
+            client.discoverCatalog();
+            log("Catalog: %d courses, %d subtopics; mix %s", client.courseCount(), client.subtopicCount(), mix);
+
+            List<VirtualUser> virtualUsers = setUpUsers(client, users);
+            LatencyReport report = run(client, mix, virtualUsers, concurrency,
+                    Integer.parseInt(options.get("warmup-seconds")), Integer.parseInt(options.get("seconds")));
+
+            double seconds = Integer.parseInt(options.get("seconds"));
+            System.out.printf("%n%d clients, %d users, %.0f s measured after %s s warm-up%n",
+                    concurrency, users, seconds, options.get("warmup-seconds"));
+            report.print(System.out, seconds);
+            if (!options.get("csv").isEmpty()) {
+                report.appendCsv(Path.of(options.get("csv")), options.get("label"), seconds);
+            }
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    /**
+     * Boots the application on a random port with the generated catalog as its
+     * seed file. Application logs go to target/loadtest/app.log so they don't
+     * interleave with the report.
+     */
+    private static ConfigurableApplicationContext startApplication(Map<String, String> options,
+                                                                   Map<String, String> overrides,
+                                                                   String jdbcUrl) throws Exception {
+        Path catalog = Files.createTempFile("loadtest-catalog", ".json");
+        catalog.toFile().deleteOnExit();
+        CatalogGenerator.write(catalog,
+                Integer.parseInt(options.get("courses")),
+                Integer.parseInt(options.get("topics-per-course")),
+                Integer.parseInt(options.get("subtopics-per-topic")),
+                Integer.parseInt(options.get("content-length")));
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", options.get("db-user"));
+        properties.put("spring.datasource.password", options.get("db-password"));
+        properties.put("seed.import.location", catalog.toUri().toString());
+        properties.put("logging.config", "classpath:logback-loadtest.xml");
+        properties.put("logging.file.name", "target/loadtest/app.log");
+        properties.put("logging.threshold.console", "OFF");
+        properties.put("spring.main.banner-mode", "off");
+        properties.putAll(overrides);
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+
+        log("Starting the application with %s", overrides.isEmpty() ? "default settings" : overrides);
+        SpringApplication springApplication = new SpringApplication(CourseApplication.class);
+        return springApplication.run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Registers, logs in and enrolls every user, in parallel
+     */
+    private static List<VirtualUser> setUpUsers(TrafficClient client, int users) throws Exception {
+        log("Signing up %d users", users);
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        List<Future<?>> setUps = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16, Thread.ofVirtual().factory())) {
+            for (int i = 0; i < users; i++) {
+                VirtualUser user = new VirtualUser(runId, i);
+                Random random = new Random(i);
+                virtualUsers.add(user);
+                setUps.add(executor.submit(() -> {
+                    client.setUp(user, random);
+                    return null;
+                }));
+            }
+            for (Future<?> setUp : setUps) {
+                setUp.get();
+            }
+        }
+        return virtualUsers;
+    }
+
+    /**
+     * Runs closed-loop clients, each sending its next request as soon as the
+     * previous one completes. Client k acts as users k, k + concurrency, ...
+     * in turn. Only requests started after the warm-up are recorded.
+     */
+    private static LatencyReport run(TrafficClient client, TrafficMix mix, List<VirtualUser> users,
+                                     int concurrency, int warmupSeconds, int seconds) throws Exception {
+        log("Warming up for %d s, then measuring for %d s", warmupSeconds, seconds);
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long stopAt = measureFrom + seconds * 1_000_000_000L;
+
+        List<LatencyReport> reports = new ArrayList<>();
+        List<Future<?>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int k = 0; k < concurrency; k++) {
+                LatencyReport report = new LatencyReport();
+                reports.add(report);
+                List<VirtualUser> ownUsers = new ArrayList<>();
+                for (int u = k; u < users.size(); u += concurrency) {
+                    ownUsers.add(users.get(u));
+                }
+                Random random = new Random(1000 + k);
+                clients.add(executor.submit(() -> {
+                    for (int turn = 0; ; turn++) {
+                        long requestStart = System.nanoTime();
+                        if (requestStart >= stopAt) {
+                            break;
+                        }
+                        VirtualUser user = ownUsers.get(turn % ownUsers.size());
+                        Operation operation = mix.next(random);
+                        int status = client.execute(operation, user, random);
+                        long elapsed = System.nanoTime() - requestStart;
+                        if (status != TrafficClient.SKIPPED && requestStart >= measureFrom) {
+                            report.record(operation, elapsed, status);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get();
+            }
+        }
+        return LatencyReport.merge(reports);
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[loadtest] " + format + "%n", args);
+    }
+}
@@ -0,0 +1,41 @@
+package com.courseplatform.loadtest;
+
+/**
+ * The requests a virtual user makes, by the name used in the {@code mix} option
+ */
+enum Operation {
+
+    REGISTER("register", "POST /api/auth/register"),
+    LOGIN("login", "POST /api/auth/login"),
+    COURSES("courses", "GET /api/courses"),
+    COURSE("course", "GET /api/courses/{courseId}"),
+    SEARCH("search", "GET /api/search"),
+    ENROLL("enroll", "POST /api/courses/{courseId}/enroll"),
+    COMPLETE("complete", "POST /api/subtopics/{subtopicId}/complete"),
+    PROGRESS("progress", "GET /api/enrollments/{enrollmentId}/progress");
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operation forKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "' in mix");
+    }
+}
@@ -0,0 +1,252 @@
+package com.courseplatform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+/**
+ * Issues the application's requests over HTTP. The catalog (course and subtopic
+ * ids, search queries) is discovered through the API, so the same client works
+ * against the in-process application and an already running one.
+ */
+final class TrafficClient {
+
+    static final String PASSWORD = "loadtest-password";
+
+    /**
+     * Returned by {@link #execute} when the user had nothing to do for the
+     * operation (e.g. already enrolled everywhere); not recorded
+     */
+    static final int SKIPPED = 0;
+
+    /**
+     * Returned by {@link #execute} when the request failed without a response
+     */
+    static final int NO_RESPONSE = -1;
+
+    /**
+     * How long a setup request keeps retrying 503s. Sign-ups are limited by the
+     * password-hashing pool, which on a small machine admits fewer at a time
+     * than the setup threads send, so a count of attempts can run out.
+     */
+    private static final Duration SETUP_RETRY_TIMEOUT = Duration.ofMinutes(5);
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<String> courseIds;
+    private Map<String, List<String>> subtopicIdsByCourse;
+    private List<String> queries;
+
+    TrafficClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Reads the catalog through the API and derives search queries from it:
+     * whole title words, the generator's terms and two-letter prefixes
+     */
+    void discoverCatalog() throws IOException, InterruptedException {
+        JsonNode courses = json(send(get("/api/courses").build())).path("courses");
+        courseIds = new ArrayList<>();
+        subtopicIdsByCourse = new LinkedHashMap<>();
+        Set<String> words = new LinkedHashSet<>(CatalogGenerator.TERMS);
+
+        for (JsonNode course : courses) {
+            String courseId = course.path("id").asText();
+            courseIds.add(courseId);
+            addWords(words, course.path("title").asText());
+
+            List<String> subtopicIds = new ArrayList<>();
+            for (JsonNode topic : json(send(get("/api/courses/" + courseId).build())).path("topics")) {
+                for (JsonNode subtopic : topic.path("subtopics")) {
+                    subtopicIds.add(subtopic.path("id").asText());
+                }
+            }
+            subtopicIdsByCourse.put(courseId, subtopicIds);
+        }
+        if (courseIds.isEmpty()) {
+            throw new IllegalStateException("The catalog at " + baseUrl + " is empty");
+        }
+
+        queries = new ArrayList<>(words);
+        for (String word : List.copyOf(words)) {
+            queries.add(word.substring(0, 2));
+        }
+    }
+
+    int courseCount() {
+        return courseIds.size();
+    }
+
+    int subtopicCount() {
+        return subtopicIdsByCourse.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Registers and logs in the user and enrolls them in one random course,
+     * backing off as told when the application answers 503
+     */
+    void setUp(VirtualUser user, Random random) throws IOException, InterruptedException {
+        expectSuccess(sendUntilAccepted(post("/api/auth/register", credentials(user.email())).build()), "register");
+        HttpResponse<String> login = sendUntilAccepted(post("/api/auth/login", credentials(user.email())).build());
+        expectSuccess(login, "login");
+        user.setToken(json(login).path("token").asText());
+
+        String courseId = courseIds.get(random.nextInt(courseIds.size()));
+        HttpResponse<String> enrollment = sendUntilAccepted(
+                authorized(post("/api/courses/" + courseId + "/enroll", null), user).build());
+        expectSuccess(enrollment, "enroll");
+        user.enrolled(courseId, json(enrollment).path("enrollmentId").asLong());
+    }
+
+    /**
+     * Performs one operation as the user
+     *
+     * @return the HTTP status, {@link #SKIPPED} or {@link #NO_RESPONSE}
+     */
+    int execute(Operation operation, VirtualUser user, Random random) {
+        try {
+            return switch (operation) {
+                case REGISTER -> discard(post("/api/auth/register",
+                        credentials("loadtest-" + user.nextRegistration() + "@example.com")));
+                case LOGIN -> login(user);
+                case COURSES -> discard(get("/api/courses"));
+                case COURSE -> discard(get("/api/courses/" + courseIds.get(random.nextInt(courseIds.size()))));
+                case SEARCH -> discard(get("/api/search?q="
+                        + URLEncoder.encode(queries.get(random.nextInt(queries.size())), StandardCharsets.UTF_8)));
+                case ENROLL -> enroll(user, random);
+                case COMPLETE -> complete(user, random);
+                case PROGRESS -> discard(authorized(get("/api/enrollments/"
+                        + user.randomEnrollmentId(random) + "/progress"), user));
+            };
+        } catch (IOException e) {
+            return NO_RESPONSE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return NO_RESPONSE;
+        }
+    }
+
+    private int login(VirtualUser user) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/api/auth/login", credentials(user.email())).build());
+        if (response.statusCode() == 200) {
+            user.setToken(json(response).path("token").asText());
+        }
+        return response.statusCode();
+    }
+
+    private int enroll(VirtualUser user, Random random) throws IOException, InterruptedException {
+        int start = random.nextInt(courseIds.size());
+        for (int i = 0; i < courseIds.size(); i++) {
+            String courseId = courseIds.get((start + i) % courseIds.size());
+            if (!user.isEnrolledIn(courseId)) {
+                HttpResponse<String> response = send(authorized(post("/api/courses/" + courseId + "/enroll", null), user)
+                        .build());
+                if (response.statusCode() == 201) {
+                    user.enrolled(courseId, json(response).path("enrollmentId").asLong());
+                }
+                return response.statusCode();
+            }
+        }
+        return SKIPPED;
+    }
+
+    private int complete(VirtualUser user, Random random) throws IOException, InterruptedException {
+        List<String> subtopicIds = subtopicIdsByCourse.get(user.randomCourseId(random));
+        if (subtopicIds.isEmpty()) {
+            return SKIPPED;
+        }
+        String subtopicId = subtopicIds.get(random.nextInt(subtopicIds.size()));
+        return discard(authorized(post("/api/subtopics/" + subtopicId + "/complete", null), user));
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(json != null ? HttpRequest.BodyPublishers.ofString(json) : HttpRequest.BodyPublishers.noBody());
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder request, VirtualUser user) {
+        return request.header("Authorization", "Bearer " + user.token());
+    }
+
+    /**
+     * Sends a request the way a browser would (accepting gzip) and drops the body
+     */
+    private int discard(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> sendUntilAccepted(HttpRequest request) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + SETUP_RETRY_TIMEOUT.toNanos();
+        while (true) {
+            HttpResponse<String> response = send(request);
+            if (response.statusCode() != 503 || System.nanoTime() > deadline) {
+                return response;
+            }
+            long retryAfterSeconds = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(retryAfterSeconds * 1000);
+        }
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private String credentials(String email) {
+        return objectMapper.createObjectNode()
+                .put("email", email)
+                .put("password", PASSWORD)
+                .toString();
+    }
+
+    private static void addWords(Set<String> words, String text) {
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= 4) {
+                words.add(word);
+            }
+        }
+    }
+
+    private static void expectSuccess(HttpResponse<String> response, String step) {
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Setup " + step + " failed with " + response.statusCode()
+                    + ": " + response.body());
+        }
+    }
+}
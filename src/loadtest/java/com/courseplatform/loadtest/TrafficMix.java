@@ -0,0 +1,65 @@
+package com.courseplatform.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Relative weights of the operations, e.g.
+ * {@code courses:25,course:25,search:20,progress:12,complete:10,login:4,enroll:3,register:1}
+ */
+final class TrafficMix {
+
+    static final String DEFAULT = "courses:25,course:25,search:20,progress:12,complete:10,login:4,enroll:3,register:1";
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private TrafficMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The mix needs at least one positive weight");
+        }
+    }
+
+    static TrafficMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like course:25, got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.forKey(parts[0].trim()), weight);
+            }
+        }
+        return new TrafficMix(weights);
+    }
+
+    Operation next(Random random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    @Override
+    public String toString() {
+        return weights.entrySet().stream()
+                .map(entry -> entry.getKey().key() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,64 @@
+package com.courseplatform.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A registered user and their enrollments. Each user belongs to one client
+ * thread, so none of this is shared.
+ */
+final class VirtualUser {
+
+    private final String email;
+    private final String registrationPrefix;
+    private String token;
+    private int registrations;
+
+    private final Map<String, Long> enrollmentIdsByCourse = new HashMap<>();
+    private final List<String> enrolledCourseIds = new ArrayList<>();
+
+    VirtualUser(String runId, int index) {
+        this.email = "loadtest-" + runId + "-" + index + "@example.com";
+        this.registrationPrefix = runId + "-" + index + "-";
+    }
+
+    String email() {
+        return email;
+    }
+
+    String token() {
+        return token;
+    }
+
+    void setToken(String token) {
+        this.token = token;
+    }
+
+    /**
+     * A fresh id for the register operation, which signs up a new account each time
+     */
+    String nextRegistration() {
+        return registrationPrefix + registrations++;
+    }
+
+    void enrolled(String courseId, long enrollmentId) {
+        if (enrollmentIdsByCourse.put(courseId, enrollmentId) == null) {
+            enrolledCourseIds.add(courseId);
+        }
+    }
+
+    boolean isEnrolledIn(String courseId) {
+        return enrollmentIdsByCourse.containsKey(courseId);
+    }
+
+    String randomCourseId(Random random) {
+        return enrolledCourseIds.get(random.nextInt(enrolledCourseIds.size()));
+    }
+
+    long randomEnrollmentId(Random random) {
+        return enrollmentIdsByCourse.get(randomCourseId(random));
+    }
+}
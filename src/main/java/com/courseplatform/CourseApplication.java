@@ -2,11 +2,15 @@ package com.courseplatform;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class CourseApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(CourseApplication.class, args);
+        SpringApplication application = new SpringApplication(CourseApplication.class);
+        // Records startup steps for the report logged by StartupReport
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 }
@@ -0,0 +1,81 @@
+package com.courseplatform.config;
+
+import com.courseplatform.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests in flight when requests run on virtual threads.
+ * <p>
+ * With a platform thread pool, Tomcat's thread count bounds how many requests
+ * can wait on the connection pool. Virtual threads remove that bound, so
+ * without a cap every request beyond the pool size would park inside Hikari
+ * until its connection timeout. Requests over the cap wait briefly for a slot
+ * and are otherwise turned away with 503 and {@code Retry-After}, the same
+ * response {@link com.courseplatform.exception.ServiceUnavailableException}
+ * produces.
+ */
+@Slf4j
+public class ConnectionPoolGuardFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long admissionTimeoutMs;
+    private final ObjectMapper objectMapper;
+
+    public ConnectionPoolGuardFilter(int maxInFlight, long admissionTimeoutMs, ObjectMapper objectMapper) {
+        this.permits = new Semaphore(maxInFlight);
+        this.admissionTimeoutMs = admissionTimeoutMs;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(admissionTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+
+        if (!admitted) {
+            log.debug("Rejected {} {}: too many requests in flight", request.getMethod(), request.getRequestURI());
+            sendServiceUnavailable(response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void sendServiceUnavailable(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Service Unavailable")
+                .message("Server is busy, please retry shortly")
+                .timestamp(Instant.now())
+                .build();
+
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -8,11 +8,13 @@ import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Configuration
 public class OpenApiConfig {
 
     @Bean
+    @Lazy
     public OpenAPI customOpenAPI() {
         final String securitySchemeName = "bearerAuth";
         
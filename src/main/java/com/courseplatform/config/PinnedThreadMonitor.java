@@ -0,0 +1,110 @@
+package com.courseplatform.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier while blocking,
+ * for example inside a {@code synchronized} block of a JDBC driver or pool.
+ * A pinned virtual thread holds a carrier thread for as long as it blocks, so
+ * a few of them around database calls are enough to starve the scheduler.
+ * <p>
+ * Listens to the JDK's {@code jdk.VirtualThreadPinned} events in-process.
+ * Each pinning site (the first frame outside the JDK) is logged with its stack
+ * the first time it is seen and counted after that; frames in the PostgreSQL
+ * driver and in Hikari are called out. The counts are logged on shutdown.
+ */
+@Slf4j
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+    private static final List<String> DATABASE_PACKAGES = List.of("org.postgresql.", "com.zaxxer.hikari.");
+    private static final int LOGGED_FRAMES = 64;
+
+    private final Duration threshold;
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+
+    private volatile RecordingStream stream;
+
+    public PinnedThreadMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Pinning site -> number of pinned events seen there
+     */
+    public Map<String, Long> pinnedSites() {
+        return pinnedBySite.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        recording.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Watching for virtual threads pinned longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording == null) {
+            return;
+        }
+        stream = null;
+        recording.close();
+        if (!pinnedBySite.isEmpty()) {
+            log.warn("Pinned virtual threads by site: {}", pinnedSites());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        // The top frames are the JDK parking the thread; what matters starts below them
+        List<String> callerFrames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames().stream()
+                .map(PinnedThreadMonitor::describe)
+                .dropWhile(PinnedThreadMonitor::isJdkFrame)
+                .toList();
+        String site = callerFrames.isEmpty() ? "unknown" : callerFrames.get(0);
+
+        LongAdder seen = pinnedBySite.putIfAbsent(site, new LongAdder());
+        pinnedBySite.get(site).increment();
+        if (seen != null) {
+            return;
+        }
+
+        boolean inDatabaseCode = callerFrames.stream()
+                .anyMatch(frame -> DATABASE_PACKAGES.stream().anyMatch(frame::startsWith));
+        String stack = callerFrames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\n\tat " + frame)
+                .collect(Collectors.joining());
+        log.warn("Virtual thread pinned for {} ms at {}{}{}", event.getDuration().toMillis(), site,
+                inDatabaseCode ? " (in the database driver or pool)" : "", stack);
+    }
+
+    private static boolean isJdkFrame(String frame) {
+        return frame.startsWith("java.") || frame.startsWith("jdk.") || frame.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,83 @@
+package com.courseplatform.config;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for the catalog ({@link Course}, {@link Topic},
+ * {@link Subtopic} and their {@code topics}/{@code subtopics} collections) and
+ * for cacheable catalog queries, held in local Caffeine caches behind JCache.
+ * <p>
+ * The catalog is only written by the importer, through JDBC, which Hibernate
+ * never sees; {@link SecondLevelCacheEvictor} empties the cache when the
+ * catalog changes. Every region records hit, miss and eviction statistics,
+ * which are available over JMX ({@code javax.cache:type=CacheStatistics}).
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final List<String> CATALOG_REGIONS = List.of(
+            Course.class.getName(),
+            Course.class.getName() + ".topics",
+            Topic.class.getName(),
+            Topic.class.getName() + ".subtopics",
+            Subtopic.class.getName(),
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${catalog.second-level-cache.max-entries:20000}") long maxEntriesPerRegion) {
+        return createCacheManager(maxEntriesPerRegion);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    /**
+     * A cache manager of its own, with the cache regions Hibernate expects; the
+     * caller closes it. Each catalog region is capped at
+     * {@code maxEntriesPerRegion}; the update timestamps region is never
+     * evicted from, as Hibernate requires.
+     */
+    public static CacheManager createCacheManager(long maxEntriesPerRegion) {
+        // Not the provider's shared default manager, whose regions another context in this JVM may be using
+        URI uri = URI.create("course-platform-second-level-cache-" + UUID.randomUUID());
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, SecondLevelCacheConfig.class.getClassLoader());
+
+        for (String region : CATALOG_REGIONS) {
+            createCache(cacheManager, region, OptionalLong.of(maxEntriesPerRegion));
+        }
+        createCache(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                OptionalLong.empty());
+        return cacheManager;
+    }
+
+    private static void createCache(CacheManager cacheManager, String region, OptionalLong maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        // Hibernate stores its own immutable cache entries; copying them on every read buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        configuration.setManagementEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,43 @@
+package com.courseplatform.config;
+
+import com.courseplatform.event.CourseCatalogChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Empties the second-level cache when the catalog is reloaded. The importer
+ * writes through JDBC, so Hibernate cannot invalidate the cached rows itself.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Runs before the other catalog listeners, which rebuild their views
+     * through Hibernate and must not read the old rows back from the cache
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        if (statistics.isStatisticsEnabled()) {
+            log.info("Evicting second-level cache; since startup: {} hits, {} misses, {} puts, "
+                            + "query cache {} hits, {} misses",
+                    statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                    statistics.getSecondLevelCachePutCount(), statistics.getQueryCacheHitCount(),
+                    statistics.getQueryCacheMissCount());
+        }
+        sessionFactory.getCache().evictAllRegions();
+    }
+}
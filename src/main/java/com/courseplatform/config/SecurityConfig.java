@@ -1,8 +1,10 @@
 package com.courseplatform.config;
 
+import com.courseplatform.security.BCryptCost;
 import com.courseplatform.security.JwtAuthenticationEntryPoint;
 import com.courseplatform.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,6 +19,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
@@ -64,9 +68,23 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * The pinned {@code password-hashing.cost} ({@code BCRYPT_COST}, 10 by
+     * default). Only with {@code password-hashing.calibrate} (the dev profile)
+     * is it calibrated to {@code password-hashing.target-ms} instead, since
+     * that hashes at startup.
+     */
+    @Bean
+    public BCryptCost bcryptCost(@Value("${password-hashing.cost:10}") int cost,
+                                 @Value("${password-hashing.calibrate:false}") boolean calibrate,
+                                 @Value("${password-hashing.target-ms:100}") long targetMs,
+                                 @Value("${password-hashing.min-cost:10}") int minCost) {
+        return calibrate ? BCryptCost.calibrate(Duration.ofMillis(targetMs), minCost) : new BCryptCost(cost);
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(BCryptCost bcryptCost) {
+        return new BCryptPasswordEncoder(bcryptCost.value());
     }
 
     @Bean
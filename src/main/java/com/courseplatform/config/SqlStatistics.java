@@ -0,0 +1,88 @@
+package com.courseplatform.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC work done on one request thread: statements executed, rows read and
+ * time spent inside the driver. {@link SqlStatisticsFilter} starts one per
+ * request; {@link SqlStatisticsDataSource} records into it. Work on other
+ * threads (write-behind flushes, the catalog import) is not attributed to
+ * any request.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+
+    /**
+     * Executions per SQL text, to spot the same query run once per row
+     */
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The statistics of the request running on this thread, or null outside a request
+     */
+    static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statementExecuted(String sql, long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    void rowRead(long nanos) {
+        rows++;
+        jdbcNanos += nanos;
+    }
+
+    void fetchCompleted(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public double getJdbcMillis() {
+        return jdbcNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * The statement executed most often, or null if there were none
+     */
+    Map.Entry<String, Integer> mostRepeated() {
+        return executionsBySql.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+
+    /**
+     * The {@value SqlStatisticsFilter#HEADER} header value, e.g.
+     * {@code statements=2; rows=41; jdbc-ms=1.84}
+     */
+    @Override
+    public String toString() {
+        return String.format("statements=%d; rows=%d; jdbc-ms=%.2f", statements, rows, getJdbcMillis());
+    }
+}
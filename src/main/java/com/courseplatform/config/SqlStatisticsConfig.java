@@ -0,0 +1,71 @@
+package com.courseplatform.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Per-request SQL accounting ({@code sql-stats.enabled}): wraps the
+ * {@link DataSource} in a {@link SqlStatisticsDataSource} and registers
+ * the {@link SqlStatisticsFilter} that checks each request's statement budget.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "sql-stats.enabled", havingValue = "true")
+public class SqlStatisticsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourceWrapper() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatisticsDataSource)) {
+                    return new SqlStatisticsDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Registered after the connection pool guard, so turned-away requests are
+     * not counted, and ahead of Spring Security, so authentication lookups are
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${sql-stats.header:false}") boolean header,
+            @Value("${sql-stats.budget-mode:log}") String budgetMode,
+            @Value("${sql-stats.default-budget:-1}") int defaultBudget,
+            @Value("${sql-stats.repeated-statement-threshold:10}") int repeatedStatementThreshold) {
+        Map<String, Integer> budgets = Binder.get(environment)
+                .bind("sql-stats.budgets", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        boolean failOverBudget = switch (budgetMode) {
+            case "log" -> false;
+            case "fail" -> true;
+            default -> throw new IllegalArgumentException("sql-stats.budget-mode must be log or fail, was " + budgetMode);
+        };
+        log.info("SQL statement budgets: {} endpoints, default {}, {} when exceeded",
+                budgets.size(), defaultBudget >= 0 ? defaultBudget : "none", budgetMode);
+
+        FilterRegistrationBean<SqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatisticsFilter(header, failOverBudget, defaultBudget, budgets,
+                        repeatedStatementThreshold, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,129 @@
+package com.courseplatform.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the connection pool so every statement executed on a request thread
+ * is recorded in that request's {@link SqlStatistics}: one statement per
+ * {@code execute*} call (a JDBC batch counts once, as it is one round trip),
+ * one row per successful {@code ResultSet.next()}, and the time spent in both.
+ * Outside a request, calls go straight to the driver objects.
+ * <p>
+ * {@code unwrap} and {@code isWrapperFor} reach the pool, so code looking for
+ * the {@code HikariDataSource} still finds it.
+ */
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    public SqlStatisticsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private static Connection connection(Connection target) {
+        return proxy(Connection.class, target, (method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                case "prepareStatement" -> statement(PreparedStatement.class, (PreparedStatement) result,
+                        (String) args[0]);
+                case "prepareCall" -> statement(CallableStatement.class, (CallableStatement) result,
+                        (String) args[0]);
+                default -> result;
+            };
+        });
+    }
+
+    /**
+     * @param preparedSql the statement's SQL if it was prepared; plain statements
+     *                    pass theirs to {@code execute}
+     */
+    private static <S extends Statement> S statement(Class<S> type, S target, String preparedSql) {
+        return proxy(type, target, (method, args) -> {
+            SqlStatistics statistics = SqlStatistics.current();
+            String name = method.getName();
+            if (statistics == null) {
+                return invoke(target, method, args);
+            }
+
+            if (name.startsWith("execute")) {
+                String sql = preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String text ? text : "batch";
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = invoke(target, method, args);
+                } finally {
+                    statistics.statementExecuted(sql, System.nanoTime() - start);
+                }
+                return result instanceof ResultSet resultSet ? resultSet(resultSet, statistics) : result;
+            }
+            if (name.equals("getResultSet")) {
+                ResultSet resultSet = (ResultSet) invoke(target, method, args);
+                return resultSet != null ? resultSet(resultSet, statistics) : null;
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static ResultSet resultSet(ResultSet target, SqlStatistics statistics) {
+        return proxy(ResultSet.class, target, (method, args) -> {
+            if (!method.getName().equals("next")) {
+                return invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            boolean hasRow = (Boolean) invoke(target, method, args);
+            if (hasRow) {
+                statistics.rowRead(System.nanoTime() - start);
+            } else {
+                statistics.fetchCompleted(System.nanoTime() - start);
+            }
+            return hasRow;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> switch (method.getName()) {
+            // Identity semantics for the proxy itself; everything else reaches the driver object
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> target.toString();
+            default -> handler.handle(method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(SqlStatisticsDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, invocationHandler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.courseplatform.config;
+
+import com.courseplatform.exception.SqlBudgetExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the SQL statements, rows and JDBC time of each request (see
+ * {@link SqlStatisticsDataSource}) and checks them against the endpoint's
+ * budget: {@code sql-stats.budgets[<uri pattern>]}, or
+ * {@code sql-stats.default-budget} for endpoints without one. An endpoint
+ * over budget is logged, or with {@code sql-stats.budget-mode=fail} fails with
+ * {@link SqlBudgetExceededException} so integration tests catch N+1 regressions.
+ * A request that runs the same statement {@code sql-stats.repeated-statement-threshold}
+ * or more times is logged as a likely N+1 whatever its budget.
+ * <p>
+ * With {@code sql-stats.header=true} responses carry the counts in
+ * {@value #HEADER}, as of when the response body is started.
+ */
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Sql-Stats";
+
+    private static final String UNMAPPED = "UNMAPPED";
+
+    private final boolean header;
+    private final boolean failOverBudget;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+    private final int repeatedStatementThreshold;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> statementsSummaries = new ConcurrentHashMap<>();
+
+    public SqlStatisticsFilter(boolean header, boolean failOverBudget, int defaultBudget,
+                               Map<String, Integer> budgets, int repeatedStatementThreshold,
+                               MeterRegistry meterRegistry) {
+        this.header = header;
+        this.failOverBudget = failOverBudget;
+        this.defaultBudget = defaultBudget;
+        this.budgets = Map.copyOf(budgets);
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            filterChain.doFilter(request, header ? new StatisticsHeaderResponse(response, statistics) : response);
+        } finally {
+            SqlStatistics.stop();
+        }
+        if (header && !response.isCommitted()) {
+            response.setHeader(HEADER, statistics.toString());
+        }
+        check(request, statistics);
+    }
+
+    private void check(HttpServletRequest request, SqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? pattern.toString() : UNMAPPED;
+        String method = request.getMethod();
+        log.debug("{} {}: {}", method, request.getRequestURI(), statistics);
+
+        statementsSummary(method, endpoint).record(statistics.getStatements());
+
+        Map.Entry<String, Integer> repeated = statistics.mostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatedStatementThreshold) {
+            log.warn("{} {} ran the same statement {} times, likely N+1: {}",
+                    method, endpoint, repeated.getValue(), repeated.getKey());
+        }
+
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (budget >= 0 && statistics.getStatements() > budget) {
+            String message = String.format("%s %s ran %d SQL statements, over its budget of %d (%s)",
+                    method, endpoint, statistics.getStatements(), budget, statistics);
+            if (failOverBudget) {
+                throw new SqlBudgetExceededException(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    /**
+     * The {@code sql.statements} summary for the endpoint, registered on first use
+     */
+    private DistributionSummary statementsSummary(String method, String endpoint) {
+        return statementsSummaries.computeIfAbsent(method + " " + endpoint, key -> DistributionSummary
+                .builder("sql.statements")
+                .description("SQL statements per request")
+                .tag("method", method)
+                .tag("uri", endpoint)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Sets the header just before the body is written, while headers can still change
+     */
+    private static class StatisticsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatistics statistics;
+        private boolean stamped;
+
+        StatisticsHeaderResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stamp();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            stamp();
+            super.sendError(sc);
+        }
+
+        private void stamp() {
+            if (!stamped && !isCommitted()) {
+                setHeader(HEADER, statistics.toString());
+                stamped = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.courseplatform.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+@Configuration
+public class StartupConfig {
+
+    private static final String[] DEFAULT_LAZY_CLASSES = {
+            "org.springdoc.webmvc.api.",
+            "org.springdoc.webmvc.ui.SwaggerWelcome",
+            "org.springdoc.webmvc.ui.SwaggerConfigResource"
+    };
+
+    /**
+     * Makes beans that are not needed to serve traffic lazy, so they are created
+     * on first use instead of at startup. By default these are the API docs and
+     * Swagger UI endpoints, which pull in springdoc's documentation services.
+     * Only beans nothing else depends on at startup belong here: springdoc's own
+     * configuration must stay eager or the generated docs change.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        List<String> prefixes = List.of(environment.getProperty("startup.lazy-classes", String[].class,
+                DEFAULT_LAZY_CLASSES));
+
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+
+                // @Bean methods have no class name of their own; use the declared return type
+                String className = definition.getBeanClassName();
+                if (className == null && definition instanceof AnnotatedBeanDefinition annotated
+                        && annotated.getFactoryMethodMetadata() != null) {
+                    className = annotated.getFactoryMethodMetadata().getReturnTypeName();
+                }
+
+                if (className != null && prefixes.stream().anyMatch(className::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    /**
+     * Migrates as usual, except in the class data sharing training run
+     * ({@code startup.training-run=true}), which stops once the context has
+     * refreshed and has no database to migrate. This is a runtime switch because
+     * with Spring AOT {@code spring.flyway.enabled} is fixed at build time.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${startup.training-run:false}") boolean trainingRun) {
+        return flyway -> {
+            if (!trainingRun) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.courseplatform.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Logs where startup time went once the application is ready: the slowest
+ * startup phases and the slowest beans to create. Phases nest (the context
+ * refresh contains bean creation, for instance) and a bean's time includes the
+ * dependencies created for it, so times overlap and don't add up to the
+ * total. Needs the {@link BufferingApplicationStartup} installed in
+ * {@code CourseApplication}; the recorded steps are released afterwards
+ * either way.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupReport {
+
+    private static final String BEAN_INSTANTIATION_STEP = "spring.beans.instantiate";
+
+    private final ApplicationStartup applicationStartup;
+
+    @Value("${startup.report.enabled:true}")
+    private boolean enabled;
+
+    @Value("${startup.report.top:10}")
+    private int top;
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        StartupTimeline timeline = buffering.drainBufferedTimeline();
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, Duration> phases = new HashMap<>();
+        Map<String, Duration> beans = new HashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : timeline.getEvents()) {
+            StartupStep step = timelineEvent.getStartupStep();
+            if (BEAN_INSTANTIATION_STEP.equals(step.getName())) {
+                beans.merge(tag(step, "beanName"), timelineEvent.getDuration(), Duration::plus);
+            } else {
+                phases.merge(step.getName(), timelineEvent.getDuration(), Duration::plus);
+            }
+        }
+
+        StringBuilder report = new StringBuilder()
+                .append("Startup report: ready in ").append(event.getTimeTaken().toMillis()).append(" ms, ")
+                .append(ManagementFactory.getRuntimeMXBean().getUptime()).append(" ms since JVM start");
+        append(report, "Slowest phases", phases);
+        append(report, "Slowest beans", beans);
+        log.info(report.toString());
+    }
+
+    private void append(StringBuilder report, String title, Map<String, Duration> durations) {
+        report.append(System.lineSeparator()).append("  ").append(title).append(':');
+        durations.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue(Comparator.reverseOrder()))
+                .limit(top)
+                .forEach(entry -> report.append(System.lineSeparator())
+                        .append(String.format("    %6d ms  %s", entry.getValue().toMillis(), entry.getKey())));
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,86 @@
+package com.courseplatform.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Extras for running requests on virtual threads
+ * ({@code spring.threads.virtual.enabled=true}). Spring Boot itself moves
+ * Tomcat's request handling onto virtual threads; {@code @Transactional}
+ * service calls run on the request thread, so they follow. This adds the
+ * pieces Boot leaves out: a cap on requests in flight sized from the
+ * connection pool, and a monitor for pinned virtual threads.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Admits at most {@code virtual-threads.max-in-flight} requests at once, or
+     * {@code virtual-threads.requests-per-connection} per pooled connection when
+     * that is 0. Registered ahead of Spring Security so authentication lookups
+     * are covered too.
+     */
+    @Bean
+    public FilterRegistrationBean<ConnectionPoolGuardFilter> connectionPoolGuardFilter(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${virtual-threads.max-in-flight:0}") int maxInFlight,
+            @Value("${virtual-threads.requests-per-connection:4}") int requestsPerConnection,
+            @Value("${virtual-threads.admission-timeout-ms:500}") long admissionTimeoutMs) {
+        int poolSize = poolSize(dataSource);
+        int limit = maxInFlight > 0 ? maxInFlight : Math.max(poolSize, 1) * requestsPerConnection;
+
+        if (poolSize > 0 && limit < poolSize) {
+            log.warn("virtual-threads.max-in-flight ({}) is below the connection pool size ({}); "
+                    + "some connections will never be used", limit, poolSize);
+        }
+        if (poolSize > 0) {
+            log.info("Requests run on virtual threads; at most {} in flight for a pool of {} connections",
+                    limit, poolSize);
+        } else {
+            log.info("Requests run on virtual threads; at most {} in flight", limit);
+        }
+
+        FilterRegistrationBean<ConnectionPoolGuardFilter> registration = new FilterRegistrationBean<>(
+                new ConnectionPoolGuardFilter(limit, admissionTimeoutMs, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * Hikari fills in its default pool size only when the pool starts, which
+     * may not have happened yet
+     */
+    private static int poolSize(DataSource dataSource) {
+        // The pool may sit behind SqlStatisticsDataSource
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (hikari == null) {
+            return 0;
+        }
+        int maximumPoolSize = hikari.getMaximumPoolSize();
+        return maximumPoolSize > 0 ? maximumPoolSize : Math.max(HIKARI_DEFAULT_POOL_SIZE, hikari.getMinimumIdle());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+    public PinnedThreadMonitor pinnedThreadMonitor(@Value("${virtual-threads.pinning.threshold-ms:20}") long thresholdMs) {
+        return new PinnedThreadMonitor(Duration.ofMillis(thresholdMs));
+    }
+}
@@ -3,6 +3,7 @@ package com.courseplatform.controller;
 import com.courseplatform.dto.response.CourseDetailResponse;
 import com.courseplatform.dto.response.CourseListResponse;
 import com.courseplatform.dto.response.ErrorResponse;
+import com.courseplatform.service.CourseDetailCache;
 import com.courseplatform.service.CourseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +13,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,27 +26,40 @@ import org.springframework.web.bind.annotation.*;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseDetailCache courseDetailCache;
 
     @Operation(
         summary = "List all courses",
-        description = "Returns a list of all available courses with topic and subtopic counts. This endpoint is public and does not require authentication."
+        description = "Returns a list of all available courses with topic and subtopic counts. " +
+                      "The response carries a strong ETag; send it back in If-None-Match to get 304 Not Modified while the catalog is unchanged. " +
+                      "This endpoint is public and does not require authentication."
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
             description = "Successfully retrieved course list",
             content = @Content(schema = @Schema(implementation = CourseListResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Course list unchanged since the ETag in If-None-Match"
         )
     })
     @GetMapping
     public ResponseEntity<CourseListResponse> getAllCourses() {
-        CourseListResponse response = courseService.getAllCourses();
-        return ResponseEntity.ok(response);
+        CourseService.CourseCatalog catalog = courseService.getAllCourses();
+        // A matching If-None-Match is answered with 304 by Spring MVC
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalog.etag())
+                .body(catalog.response());
     }
 
     @Operation(
         summary = "Get course by ID",
-        description = "Returns detailed information about a specific course including all topics, subtopics, and markdown content. This endpoint is public and does not require authentication."
+        description = "Returns detailed information about a specific course including all topics, subtopics, and markdown content. " +
+                      "The response is served pre-encoded (gzip when accepted) with a strong ETag that can be sent back in If-None-Match. " +
+                      "This endpoint is public and does not require authentication."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -50,6 +67,10 @@ public class CourseController {
             description = "Successfully retrieved course details",
             content = @Content(schema = @Schema(implementation = CourseDetailResponse.class))
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Course unchanged since the ETag in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Course not found",
@@ -57,10 +78,63 @@ public class CourseController {
         )
     })
     @GetMapping("/{courseId}")
-    public ResponseEntity<CourseDetailResponse> getCourseById(
+    public ResponseEntity<byte[]> getCourseById(
             @Parameter(description = "Course ID (e.g., physics-101, math-101)", example = "physics-101")
-            @PathVariable String courseId) {
-        CourseDetailResponse response = courseService.getCourseById(courseId);
-        return ResponseEntity.ok(response);
+            @PathVariable String courseId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CourseDetailCache.CachedCourseDetail detail = courseDetailCache.get(courseId);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        // A matching If-None-Match is answered with 304 by Spring MVC
+        if (detail.gzip() != null && acceptsGzip(acceptEncoding)) {
+            return response
+                    .eTag(detail.gzipETag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(detail.gzip());
+        }
+        return response
+                .eTag(detail.etag())
+                .body(detail.json());
+    }
+
+    /**
+     * Whether the Accept-Encoding header allows gzip: an explicit gzip (or
+     * x-gzip) entry decides, otherwise "*" does. A q-value of 0 refuses.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality(parts);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality(parts);
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 }
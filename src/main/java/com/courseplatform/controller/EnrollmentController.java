@@ -4,8 +4,7 @@ import com.courseplatform.dto.response.EnrollmentListResponse;
 import com.courseplatform.dto.response.EnrollmentResponse;
 import com.courseplatform.dto.response.ErrorResponse;
 import com.courseplatform.dto.response.ProgressResponse;
-import com.courseplatform.entity.User;
-import com.courseplatform.repository.UserRepository;
+import com.courseplatform.security.UserPrincipal;
 import com.courseplatform.service.EnrollmentService;
 import com.courseplatform.service.ProgressService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,7 +19,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -32,7 +30,6 @@ public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
     private final ProgressService progressService;
-    private final UserRepository userRepository;
 
     @Operation(
         summary = "Enroll in a course",
@@ -64,16 +61,17 @@ public class EnrollmentController {
     public ResponseEntity<EnrollmentResponse> enrollInCourse(
             @Parameter(description = "Course ID to enroll in", example = "physics-101")
             @PathVariable String courseId,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserPrincipal principal) {
         
-        Long userId = getUserId(userDetails);
+        Long userId = principal.getId();
         EnrollmentResponse response = enrollmentService.enrollInCourse(userId, courseId);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @Operation(
         summary = "Get user enrollments",
-        description = "Returns a list of all courses the authenticated user is enrolled in"
+        description = "Returns the courses the authenticated user is enrolled in, most recent first. " +
+                      "Results are paginated: pass the returned nextCursor to fetch the next page."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -81,6 +79,11 @@ public class EnrollmentController {
             description = "Successfully retrieved enrollments",
             content = @Content(schema = @Schema(implementation = EnrollmentListResponse.class))
         ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid limit or cursor",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
         @ApiResponse(
             responseCode = "401",
             description = "JWT token is missing or invalid",
@@ -89,10 +92,14 @@ public class EnrollmentController {
     })
     @GetMapping("/enrollments")
     public ResponseEntity<EnrollmentListResponse> getUserEnrollments(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @Parameter(description = "Maximum number of enrollments to return (1-100)", example = "50")
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @Parameter(description = "Cursor from a previous response's nextCursor")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @AuthenticationPrincipal UserPrincipal principal) {
         
-        Long userId = getUserId(userDetails);
-        EnrollmentListResponse response = enrollmentService.getUserEnrollments(userId);
+        Long userId = principal.getId();
+        EnrollmentListResponse response = enrollmentService.getUserEnrollments(userId, limit, cursor);
         return ResponseEntity.ok(response);
     }
 
@@ -121,16 +128,10 @@ public class EnrollmentController {
     public ResponseEntity<ProgressResponse> getProgress(
             @Parameter(description = "Enrollment ID", example = "1")
             @PathVariable Long enrollmentId,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserPrincipal principal) {
         
-        Long userId = getUserId(userDetails);
+        Long userId = principal.getId();
         ProgressResponse response = progressService.getProgress(userId, enrollmentId);
         return ResponseEntity.ok(response);
     }
-
-    private Long getUserId(UserDetails userDetails) {
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
-    }
 }
@@ -1,9 +1,10 @@
 package com.courseplatform.controller;
 
+import com.courseplatform.dto.request.BatchCompletionRequest;
+import com.courseplatform.dto.response.BatchCompletionResponse;
 import com.courseplatform.dto.response.ErrorResponse;
 import com.courseplatform.dto.response.SubtopicCompletionResponse;
-import com.courseplatform.entity.User;
-import com.courseplatform.repository.UserRepository;
+import com.courseplatform.security.UserPrincipal;
 import com.courseplatform.service.ProgressService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,10 +14,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -27,7 +28,6 @@ import org.springframework.web.bind.annotation.*;
 public class ProgressController {
 
     private final ProgressService progressService;
-    private final UserRepository userRepository;
 
     @Operation(
         summary = "Mark subtopic as completed",
@@ -61,16 +61,44 @@ public class ProgressController {
     public ResponseEntity<SubtopicCompletionResponse> markComplete(
             @Parameter(description = "Subtopic ID to mark as complete", example = "velocity")
             @PathVariable String subtopicId,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal UserPrincipal principal) {
         
-        Long userId = getUserId(userDetails);
+        Long userId = principal.getId();
         SubtopicCompletionResponse response = progressService.markSubtopicComplete(userId, subtopicId);
         return ResponseEntity.ok(response);
     }
 
-    private Long getUserId(UserDetails userDetails) {
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
+    @Operation(
+        summary = "Mark several subtopics as completed",
+        description = "Marks up to 500 subtopics as completed for the authenticated user in one request, " +
+                      "e.g. for offline sync or completing a whole topic. Each subtopic gets its own result: " +
+                      "completed, already_completed, not_found or not_enrolled. " +
+                      "Like the single-subtopic endpoint, this operation is idempotent."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Per-subtopic results",
+            content = @Content(schema = @Schema(implementation = BatchCompletionResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Empty or oversized list of subtopic ids",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "JWT token is missing or invalid",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @PostMapping("/complete")
+    public ResponseEntity<BatchCompletionResponse> markCompleteBatch(
+            @Valid @RequestBody BatchCompletionRequest request,
+            @AuthenticationPrincipal UserPrincipal principal) {
+
+        Long userId = principal.getId();
+        BatchCompletionResponse response = progressService.markSubtopicsComplete(userId, request.getSubtopicIds());
+        return ResponseEntity.ok(response);
     }
 }
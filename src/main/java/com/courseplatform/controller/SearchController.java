@@ -1,5 +1,6 @@
 package com.courseplatform.controller;
 
+import com.courseplatform.dto.response.ErrorResponse;
 import com.courseplatform.dto.response.SearchResponse;
 import com.courseplatform.service.SearchService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,14 +25,19 @@ public class SearchController {
     @Operation(summary = "Search courses and content", description = "Searches across course titles, descriptions, topic titles, subtopic titles, and subtopic content. "
             +
             "Search is case-insensitive and supports partial matching (e.g., 'velo' matches 'velocity'). " +
+            "Results are ranked by relevance (course title > topic title > subtopic title > content) and paginated: " +
+            "pass the returned nextCursor to fetch the next page. " +
             "This endpoint is public and does not require authentication.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Search completed successfully", content = @Content(schema = @Schema(implementation = SearchResponse.class)))
+            @ApiResponse(responseCode = "200", description = "Search completed successfully", content = @Content(schema = @Schema(implementation = SearchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit or cursor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping
     public ResponseEntity<SearchResponse> search(
-            @Parameter(description = "Search query string (e.g., 'velocity', 'Newton', 'rate of change')", example = "velocity", required = true) @RequestParam("q") String query) {
-        SearchResponse response = searchService.search(query);
+            @Parameter(description = "Search query string (e.g., 'velocity', 'Newton', 'rate of change')", example = "velocity", required = true) @RequestParam("q") String query,
+            @Parameter(description = "Maximum number of courses to return (1-100)", example = "20") @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @Parameter(description = "Cursor from a previous response's nextCursor") @RequestParam(value = "cursor", required = false) String cursor) {
+        SearchResponse response = searchService.search(query, limit, cursor);
         return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,22 @@
+package com.courseplatform.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCompletionRequest {
+
+    @NotEmpty(message = "At least one subtopic id is required")
+    @Size(max = 500, message = "At most 500 subtopics can be completed per request")
+    private List<@NotBlank(message = "Subtopic id must not be blank") String> subtopicIds;
+}
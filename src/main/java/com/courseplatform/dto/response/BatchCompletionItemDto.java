@@ -0,0 +1,22 @@
+package com.courseplatform.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCompletionItemDto {
+    private String subtopicId;
+    private String status;       // "completed", "already_completed", "not_found" or "not_enrolled"
+    private Boolean completed;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
+    private Instant completedAt; // null unless completed
+}
@@ -0,0 +1,16 @@
+package com.courseplatform.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCompletionResponse {
+    private List<BatchCompletionItemDto> results;
+}
@@ -13,4 +13,5 @@ import java.util.List;
 @AllArgsConstructor
 public class EnrollmentListResponse {
     private List<EnrollmentResponse> enrollments;
+    private String nextCursor;   // null when there are no further enrollments
 }
@@ -1,9 +1,12 @@
 package com.courseplatform.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -17,5 +20,9 @@ public class ProgressResponse {
     private Integer totalSubtopics;
     private Integer completedSubtopics;
     private Double completionPercentage;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "UTC")
+    private Instant lastActivityAt;
+
     private List<CompletedItemDto> completedItems;
 }
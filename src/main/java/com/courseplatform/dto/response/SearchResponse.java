@@ -14,4 +14,5 @@ import java.util.List;
 public class SearchResponse {
     private String query;
     private List<SearchResultDto> results;
+    private String nextCursor;   // null when there are no further results
 }
@@ -14,5 +14,7 @@ import java.util.List;
 public class SearchResultDto {
     private String courseId;
     private String courseTitle;
+    private Double score;          // Relevance, higher is better
+    private Integer totalMatches;  // May exceed matches.size(), which is capped
     private List<SearchMatchDto> matches;
 }
@@ -9,6 +9,8 @@ import java.time.Instant;
 @Entity
 @Table(name = "enrollments", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "course_id"}, name = "uk_enrollment_user_course")
+}, indexes = {
+    @Index(name = "idx_enrollment_user_enrolled_at", columnList = "user_id, enrolled_at, id")
 })
 @Getter
 @Setter
@@ -32,4 +34,15 @@ public class Enrollment {
     @CreationTimestamp
     @Column(name = "enrolled_at", updatable = false)
     private Instant enrolledAt;
+
+    /**
+     * Number of completed subtopics, maintained alongside subtopic_progress.
+     * Null only for rows created before the column existed, until the V2 migration backfills them.
+     */
+    @Column(name = "completed_subtopics")
+    @Builder.Default
+    private Integer completedSubtopics = 0;
+
+    @Column(name = "last_activity_at")
+    private Instant lastActivityAt;
 }
@@ -0,0 +1,29 @@
+package com.courseplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Marker recording which version of a catalog file was last imported
+ */
+@Entity
+@Table(name = "seed_imports")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeedImport {
+
+    @Id
+    @Column(length = 255)
+    private String location;
+
+    @Column(nullable = false, length = 64)
+    private String checksum;
+
+    @Column(name = "imported_at", nullable = false)
+    private Instant importedAt;
+}
@@ -2,12 +2,17 @@ package com.courseplatform.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "topics")
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,6 +37,7 @@ public class Topic {
 
     @OneToMany(mappedBy = "topic", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("orderIndex ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
     @Builder.Default
     private Set<Subtopic> subtopics = new HashSet<>();
 
@@ -1,5 +1,6 @@
 package com.courseplatform.entity;
 
+import com.courseplatform.security.UserPrincipalCacheListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -10,6 +11,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserPrincipalCacheListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,15 @@
+package com.courseplatform.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published whenever courses, topics or subtopics are (re)loaded, so that
+ * in-memory views of the catalog can be rebuilt.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CourseCatalogChangedEvent {
+
+    private final int courseCount;
+}
@@ -0,0 +1,16 @@
+package com.courseplatform.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published when a user enrolls in a course; listeners see it once the
+ * enrollment has been committed.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EnrollmentCreatedEvent {
+
+    private final Long userId;
+    private final String courseId;
+}
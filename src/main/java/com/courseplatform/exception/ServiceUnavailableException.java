@@ -0,0 +1,17 @@
+package com.courseplatform.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    /**
+     * Suggested delay before the client tries again, sent as Retry-After
+     */
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
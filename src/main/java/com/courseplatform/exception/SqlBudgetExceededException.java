@@ -0,0 +1,13 @@
+package com.courseplatform.exception;
+
+/**
+ * A request ran more SQL statements than its endpoint's budget allows. Only
+ * thrown with {@code sql-stats.budget-mode=fail}, meant for integration tests,
+ * after the response has been written.
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.courseplatform.repository;
+
+public interface CourseRepositoryCustom {
+
+    /**
+     * Streams the searchable text of the whole catalog through JDBC, without
+     * loading entities: every course (by id), then every topic (by course and
+     * order) each followed by its subtopics (in order). Must run in a
+     * transaction, so PostgreSQL can fetch the rows in chunks.
+     */
+    void forEachSearchableText(SearchableTextHandler handler);
+
+    interface SearchableTextHandler {
+
+        void course(String courseId, String title, String description);
+
+        /**
+         * The subtopics passed until the next call belong to this topic
+         */
+        void topic(String courseId, String title);
+
+        void subtopic(String subtopicId, String title, String content);
+    }
+}
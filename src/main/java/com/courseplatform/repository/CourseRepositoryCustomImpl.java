@@ -0,0 +1,58 @@
+package com.courseplatform.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+
+public class CourseRepositoryCustomImpl implements CourseRepositoryCustom {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String COURSES_SQL = "SELECT id, title, description FROM courses ORDER BY id";
+
+    /*
+     * One row per subtopic, or a single row with null subtopic columns for a topic without any
+     */
+    private static final String TOPICS_SQL = """
+            SELECT t.course_id, t.id AS topic_id, t.title AS topic_title,
+                   s.id AS subtopic_id, s.title AS subtopic_title, s.content
+            FROM topics t
+            LEFT JOIN subtopics s ON s.topic_id = t.id
+            ORDER BY t.course_id, t.order_index, t.id, s.order_index, s.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CourseRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void forEachSearchableText(SearchableTextHandler handler) {
+        query(COURSES_SQL, rs -> handler.course(rs.getString("id"), rs.getString("title"),
+                rs.getString("description")));
+
+        String[] currentTopicId = new String[1];
+        query(TOPICS_SQL, rs -> {
+            String topicId = rs.getString("topic_id");
+            if (!topicId.equals(currentTopicId[0])) {
+                currentTopicId[0] = topicId;
+                handler.topic(rs.getString("course_id"), rs.getString("topic_title"));
+            }
+            String subtopicId = rs.getString("subtopic_id");
+            if (subtopicId != null) {
+                handler.subtopic(subtopicId, rs.getString("subtopic_title"), rs.getString("content"));
+            }
+        });
+    }
+
+    private void query(String sql, RowCallbackHandler rowHandler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            // Without a fetch size the driver reads the whole result into memory
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, rowHandler);
+    }
+}
@@ -1,11 +1,14 @@
 package com.courseplatform.repository;
 
+import com.courseplatform.dto.response.EnrollmentResponse;
 import com.courseplatform.entity.Enrollment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,7 +19,22 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
     Optional<Enrollment> findByUserIdAndCourseId(Long userId, String courseId);
     
-    List<Enrollment> findByUserIdOrderByEnrolledAtDesc(Long userId);
+    @Query("SELECT new com.courseplatform.dto.response.EnrollmentResponse(e.id, c.id, c.title, e.enrolledAt) " +
+           "FROM Enrollment e JOIN e.course c WHERE e.user.id = :userId " +
+           "ORDER BY e.enrolledAt DESC, e.id DESC")
+    List<EnrollmentResponse> findPageByUserId(@Param("userId") Long userId, Limit limit);
+    
+    @Query("SELECT new com.courseplatform.dto.response.EnrollmentResponse(e.id, c.id, c.title, e.enrolledAt) " +
+           "FROM Enrollment e JOIN e.course c WHERE e.user.id = :userId " +
+           "AND (e.enrolledAt < :enrolledAt OR (e.enrolledAt = :enrolledAt AND e.id < :id)) " +
+           "ORDER BY e.enrolledAt DESC, e.id DESC")
+    List<EnrollmentResponse> findPageByUserIdAfter(@Param("userId") Long userId,
+                                                   @Param("enrolledAt") Instant enrolledAt,
+                                                   @Param("id") Long id,
+                                                   Limit limit);
+    
+    @Query("SELECT e.course.id FROM Enrollment e WHERE e.user.id = :userId")
+    List<String> findCourseIdsByUserId(@Param("userId") Long userId);
     
     @Query("SELECT e FROM Enrollment e JOIN FETCH e.course WHERE e.id = :enrollmentId AND e.user.id = :userId")
     Optional<Enrollment> findByIdAndUserIdWithCourse(@Param("enrollmentId") Long enrollmentId, @Param("userId") Long userId);
@@ -0,0 +1,9 @@
+package com.courseplatform.repository;
+
+import com.courseplatform.entity.SeedImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SeedImportRepository extends JpaRepository<SeedImport, String> {
+}
@@ -6,16 +6,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SubtopicProgressRepository extends JpaRepository<SubtopicProgress, Long> {
+public interface SubtopicProgressRepository extends JpaRepository<SubtopicProgress, Long>,
+        SubtopicProgressRepositoryCustom {
     
     Optional<SubtopicProgress> findByUserIdAndSubtopicId(Long userId, String subtopicId);
     
     boolean existsByUserIdAndSubtopicId(Long userId, String subtopicId);
     
+    @Query("SELECT sp FROM SubtopicProgress sp JOIN FETCH sp.subtopic " +
+           "WHERE sp.user.id = :userId AND sp.subtopic.id IN :subtopicIds")
+    List<SubtopicProgress> findByUserIdAndSubtopicIdIn(
+            @Param("userId") Long userId,
+            @Param("subtopicIds") Collection<String> subtopicIds);
+    
     @Query("SELECT sp FROM SubtopicProgress sp " +
            "JOIN FETCH sp.subtopic s " +
            "WHERE sp.user.id = :userId " +
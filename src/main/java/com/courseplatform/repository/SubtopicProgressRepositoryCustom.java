@@ -0,0 +1,39 @@
+package com.courseplatform.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface SubtopicProgressRepositoryCustom {
+
+    /**
+     * Marks a subtopic complete for a user in a single statement: checks that the
+     * user is enrolled in the subtopic's course, inserts the progress row unless it
+     * already exists, and bumps the enrollment's progress counter on insert. Only
+     * when that records nothing does a second statement look for a row committed
+     * concurrently by another completion of the same subtopic.
+     *
+     * @return the stored completion, or empty if the subtopic does not exist or
+     *         the user is not enrolled in its course
+     */
+    Optional<Completion> upsertCompletion(Long userId, String subtopicId, Instant completedAt);
+
+    /**
+     * Inserts completions whose subtopic, course and enrollment have already been
+     * verified, in one statement that returns the rows it inserted, then adds the
+     * number of new rows to each affected enrollment's progress counter (batched).
+     * Existing rows are left untouched.
+     *
+     * @return for each completion, whether a new row was inserted
+     */
+    boolean[] insertCompletions(List<NewCompletion> completions);
+
+    /**
+     * @param inserted false when the subtopic had already been completed
+     */
+    record Completion(Instant completedAt, boolean inserted) {
+    }
+
+    record NewCompletion(Long userId, String subtopicId, String courseId, Instant completedAt) {
+    }
+}
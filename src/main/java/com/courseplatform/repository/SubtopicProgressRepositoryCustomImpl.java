@@ -0,0 +1,172 @@
+package com.courseplatform.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+public class SubtopicProgressRepositoryCustomImpl implements SubtopicProgressRepositoryCustom {
+
+    /*
+     * target:   the subtopic's course, only if the user is enrolled in it
+     * inserted: the new progress row; ON CONFLICT makes repeat and concurrent clicks no-ops
+     * counted:  the enrollment counter, bumped only when a row was inserted
+     * The final SELECT returns the new row, or the existing one if it was already complete.
+     * A row committed by a concurrent call while this one waited on ON CONFLICT is not
+     * visible to that SELECT (it reads the statement's snapshot); see FIND_COMPLETION_SQL.
+     */
+    private static final String UPSERT_COMPLETION_SQL = """
+            WITH target AS (
+                SELECT t.course_id
+                FROM subtopics s
+                JOIN topics t ON t.id = s.topic_id
+                JOIN enrollments e ON e.course_id = t.course_id AND e.user_id = :userId
+                WHERE s.id = :subtopicId
+            ), inserted AS (
+                INSERT INTO subtopic_progress (user_id, subtopic_id, completed, completed_at)
+                SELECT :userId, :subtopicId, true, :completedAt FROM target
+                ON CONFLICT (user_id, subtopic_id) DO NOTHING
+                RETURNING completed_at
+            ), counted AS (
+                UPDATE enrollments
+                SET completed_subtopics = completed_subtopics + 1, last_activity_at = :completedAt
+                WHERE user_id = :userId
+                  AND course_id = (SELECT course_id FROM target)
+                  AND EXISTS (SELECT 1 FROM inserted)
+            )
+            SELECT i.completed_at AS completed_at, true AS inserted FROM inserted i
+            UNION ALL
+            SELECT sp.completed_at, false FROM subtopic_progress sp
+            WHERE sp.user_id = :userId AND sp.subtopic_id = :subtopicId
+              AND EXISTS (SELECT 1 FROM target)
+            LIMIT 1
+            """;
+
+    /*
+     * Run as a new statement, so it sees rows committed after the upsert started
+     */
+    private static final String FIND_COMPLETION_SQL =
+            "SELECT completed_at FROM subtopic_progress WHERE user_id = :userId AND subtopic_id = :subtopicId";
+
+    /*
+     * One row per array element. RETURNING lists only the rows actually inserted, which
+     * batch update counts cannot be relied on for: drivers may report SUCCESS_NO_INFO (-2),
+     * as pgJDBC does with reWriteBatchedInserts.
+     */
+    private static final String INSERT_COMPLETIONS_SQL = """
+            INSERT INTO subtopic_progress (user_id, subtopic_id, completed, completed_at)
+            SELECT c.user_id, c.subtopic_id, true, c.completed_at
+            FROM unnest(?::bigint[], ?::varchar[], ?::timestamptz[]) AS c (user_id, subtopic_id, completed_at)
+            ON CONFLICT (user_id, subtopic_id) DO NOTHING
+            RETURNING user_id, subtopic_id
+            """;
+
+    private static final String INCREMENT_COUNTER_SQL =
+            "UPDATE enrollments SET completed_subtopics = completed_subtopics + ?, last_activity_at = ? " +
+            "WHERE user_id = ? AND course_id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SubtopicProgressRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Completion> upsertCompletion(Long userId, String subtopicId, Instant completedAt) {
+        List<Object[]> rows = entityManager.createNativeQuery(UPSERT_COMPLETION_SQL)
+                .unwrap(NativeQuery.class)
+                .addScalar("completed_at", StandardBasicTypes.INSTANT)
+                .addScalar("inserted", StandardBasicTypes.BOOLEAN)
+                .setParameter("userId", userId)
+                .setParameter("subtopicId", subtopicId)
+                .setParameter("completedAt", completedAt)
+                .getResultList();
+
+        if (!rows.isEmpty()) {
+            return Optional.of(new Completion((Instant) rows.get(0)[0], (Boolean) rows.get(0)[1]));
+        }
+
+        // Nothing inserted or found: either the enrollment check failed, or a concurrent
+        // completion of the same subtopic won the insert. A row only exists if that
+        // completion passed the same enrollment check.
+        List<Instant> existing = entityManager.createNativeQuery(FIND_COMPLETION_SQL)
+                .unwrap(NativeQuery.class)
+                .addScalar("completed_at", StandardBasicTypes.INSTANT)
+                .setParameter("userId", userId)
+                .setParameter("subtopicId", subtopicId)
+                .getResultList();
+        return existing.stream()
+                .findFirst()
+                .map(existingCompletedAt -> new Completion(existingCompletedAt, false));
+    }
+
+    @Override
+    public boolean[] insertCompletions(List<NewCompletion> completions) {
+        boolean[] inserted = new boolean[completions.size()];
+        if (completions.isEmpty()) {
+            return inserted;
+        }
+
+        // Runs in the surrounding JPA transaction
+        Set<ProgressKey> newRows = new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_COMPLETIONS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint",
+                    completions.stream().map(NewCompletion::userId).toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar",
+                    completions.stream().map(NewCompletion::subtopicId).toArray()));
+            // ISO-8601 instants, which PostgreSQL reads as UTC whatever the session time zone
+            ps.setArray(3, connection.createArrayOf("varchar",
+                    completions.stream().map(completion -> completion.completedAt().toString()).toArray()));
+            return ps;
+        }, (rs, rowNum) -> new ProgressKey(rs.getLong("user_id"), rs.getString("subtopic_id"))));
+
+        // New rows per enrollment, with the latest completion time
+        Map<EnrollmentKey, CounterIncrement> increments = new LinkedHashMap<>();
+        for (int i = 0; i < completions.size(); i++) {
+            NewCompletion completion = completions.get(i);
+            // remove: a completion listed twice was inserted once
+            if (newRows.remove(new ProgressKey(completion.userId(), completion.subtopicId()))) {
+                inserted[i] = true;
+                increments.merge(new EnrollmentKey(completion.userId(), completion.courseId()),
+                        new CounterIncrement(1, completion.completedAt()), CounterIncrement::plus);
+            }
+        }
+
+        if (!increments.isEmpty()) {
+            List<Map.Entry<EnrollmentKey, CounterIncrement>> rows = new ArrayList<>(increments.entrySet());
+            jdbcTemplate.batchUpdate(INCREMENT_COUNTER_SQL, rows, rows.size(),
+                    (ps, row) -> {
+                        ps.setInt(1, row.getValue().count());
+                        ps.setTimestamp(2, Timestamp.from(row.getValue().lastCompletedAt()));
+                        ps.setLong(3, row.getKey().userId());
+                        ps.setString(4, row.getKey().courseId());
+                    });
+        }
+
+        return inserted;
+    }
+
+    private record ProgressKey(Long userId, String subtopicId) {
+    }
+
+    private record EnrollmentKey(Long userId, String courseId) {
+    }
+
+    private record CounterIncrement(int count, Instant lastCompletedAt) {
+
+        CounterIncrement plus(CounterIncrement other) {
+            Instant latest = lastCompletedAt.isAfter(other.lastCompletedAt) ? lastCompletedAt : other.lastCompletedAt;
+            return new CounterIncrement(count + other.count, latest);
+        }
+    }
+}
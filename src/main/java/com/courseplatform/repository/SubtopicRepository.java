@@ -1,11 +1,15 @@
 package com.courseplatform.repository;
 
 import com.courseplatform.entity.Subtopic;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,12 +18,26 @@ public interface SubtopicRepository extends JpaRepository<Subtopic, String> {
     
     List<Subtopic> findByTopicIdOrderByOrderIndexAsc(String topicId);
     
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Subtopic> findByTopicIdInOrderByOrderIndexAsc(Collection<String> topicIds);
+    
     @Query("SELECT s FROM Subtopic s JOIN FETCH s.topic t JOIN FETCH t.course WHERE s.id = :subtopicId")
     Optional<Subtopic> findByIdWithTopicAndCourse(@Param("subtopicId") String subtopicId);
     
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT COUNT(s) FROM Subtopic s WHERE s.topic.course.id = :courseId")
     int countByCourseId(@Param("courseId") String courseId);
     
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT s.id FROM Subtopic s WHERE s.topic.course.id = :courseId")
     List<String> findIdsByCourseId(@Param("courseId") String courseId);
+    
+    @Query("SELECT s.id AS subtopicId, s.title AS subtopicTitle, t.course.id AS courseId FROM Subtopic s JOIN s.topic t WHERE s.id IN :subtopicIds")
+    List<SubtopicCourse> findCourseIdsBySubtopicIds(@Param("subtopicIds") Collection<String> subtopicIds);
+    
+    interface SubtopicCourse {
+        String getSubtopicId();
+        String getSubtopicTitle();
+        String getCourseId();
+    }
 }
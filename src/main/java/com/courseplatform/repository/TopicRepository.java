@@ -1,8 +1,11 @@
 package com.courseplatform.repository;
 
 import com.courseplatform.entity.Topic;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +14,7 @@ import java.util.List;
 @Repository
 public interface TopicRepository extends JpaRepository<Topic, String> {
     
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Topic> findByCourseIdOrderByOrderIndexAsc(String courseId);
     
     @Query("SELECT COUNT(s) FROM Topic t JOIN t.subtopics s WHERE t.course.id = :courseId")
@@ -2,7 +2,11 @@ package com.courseplatform.repository;
 
 import com.courseplatform.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -12,4 +16,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     
     boolean existsByEmail(String email);
+    
+    /**
+     * Replaces the password hash unless it has changed since {@code currentPassword} was read
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :currentPassword")
+    int updatePassword(@Param("id") Long id,
+                       @Param("currentPassword") String currentPassword,
+                       @Param("newPassword") String newPassword);
 }
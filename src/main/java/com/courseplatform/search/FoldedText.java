@@ -0,0 +1,75 @@
+package com.courseplatform.search;
+
+import java.util.Arrays;
+
+/**
+ * Text kept once, {@link SearchIndex#fold folded}, for matching. The characters
+ * folding changed are kept alongside, so the original can be rebuilt for
+ * display at a fraction of the memory of a second copy.
+ */
+public final class FoldedText {
+
+    private static final int[] NONE = new int[0];
+    private static final char[] NO_CHARS = new char[0];
+
+    private final String folded;
+    // Ascending positions where the original differs, and its characters there
+    private final int[] changedAt;
+    private final char[] originalChars;
+
+    private FoldedText(String folded, int[] changedAt, char[] originalChars) {
+        this.folded = folded;
+        this.changedAt = changedAt;
+        this.originalChars = originalChars;
+    }
+
+    public static FoldedText of(String text) {
+        String folded = SearchIndex.fold(text);
+        int changes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != folded.charAt(i)) {
+                changes++;
+            }
+        }
+        if (changes == 0) {
+            return new FoldedText(text, NONE, NO_CHARS);
+        }
+
+        int[] changedAt = new int[changes];
+        char[] originalChars = new char[changes];
+        for (int i = 0, n = 0; n < changes; i++) {
+            if (text.charAt(i) != folded.charAt(i)) {
+                changedAt[n] = i;
+                originalChars[n++] = text.charAt(i);
+            }
+        }
+        return new FoldedText(folded, changedAt, originalChars);
+    }
+
+    public String folded() {
+        return folded;
+    }
+
+    public int length() {
+        return folded.length();
+    }
+
+    public String original() {
+        return original(0, folded.length());
+    }
+
+    /**
+     * The original characters from {@code start} (inclusive) to {@code end} (exclusive)
+     */
+    public String original(int start, int end) {
+        if (changedAt.length == 0) {
+            return folded.substring(start, end);
+        }
+        char[] chars = folded.substring(start, end).toCharArray();
+        int first = Arrays.binarySearch(changedAt, start);
+        for (int n = first >= 0 ? first : -first - 1; n < changedAt.length && changedAt[n] < end; n++) {
+            chars[changedAt[n] - start] = originalChars[n];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,56 @@
+package com.courseplatform.search;
+
+/**
+ * A single searchable text field of the course catalog, together with the
+ * context needed to render a search match for it.
+ *
+ * @param ordinal     position of the field in catalog order (courses, then topics with their subtopics)
+ * @param text        the field's text, folded for matching
+ * @param lengthRatio length of the text relative to the average for its field type
+ */
+public record IndexedField(
+        int ordinal,
+        FieldType type,
+        String courseId,
+        String courseTitle,
+        String topicTitle,
+        String subtopicId,
+        String subtopicTitle,
+        FoldedText text,
+        double lengthRatio) {
+
+    public IndexedField withLengthRatio(double lengthRatio) {
+        return new IndexedField(ordinal, type, courseId, courseTitle, topicTitle,
+                subtopicId, subtopicTitle, text, lengthRatio);
+    }
+
+    public enum FieldType {
+        COURSE_TITLE("course", 5.0),
+        COURSE_DESCRIPTION("course", 2.0),
+        TOPIC_TITLE("topic", 3.0),
+        SUBTOPIC_TITLE("subtopic", 2.0),
+        SUBTOPIC_CONTENT("content", 1.0);
+
+        private final String matchType;
+        private final double weight;
+
+        FieldType(String matchType, double weight) {
+            this.matchType = matchType;
+            this.weight = weight;
+        }
+
+        /**
+         * The {@code type} reported in {@code SearchMatchDto}
+         */
+        public String matchType() {
+            return matchType;
+        }
+
+        /**
+         * Relevance boost applied to matches in this kind of field
+         */
+        public double weight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.courseplatform.search;
+
+import com.courseplatform.event.CourseCatalogChangedEvent;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.CourseRepositoryCustom;
+import com.courseplatform.search.IndexedField.FieldType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * In-memory trigram index over the searchable text of the course catalog.
+ * <p>
+ * Every course title/description, topic title and subtopic title/content is
+ * case-folded and split into its 3-character substrings. Each trigram maps to
+ * the ascending ordinals of the fields containing it, so a substring
+ * ("ILIKE %query%") search of three or more characters only has to look at the
+ * fields that contain every trigram of the query; shorter terms, which would
+ * match most fields anyway, scan them all. The index is rebuilt from the
+ * database at startup and whenever a {@link CourseCatalogChangedEvent} is
+ * published, and is swapped atomically so searches never block on a rebuild.
+ * <p>
+ * Once the postings reach {@code search.index.max-postings} ordinals the
+ * remaining fields are not indexed, and every search scans them instead.
+ */
+@Slf4j
+@Component
+public class SearchIndex {
+
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxPostings;
+
+    public static final int GRAM_LENGTH = 3;
+    private static final int[] EMPTY_POSTINGS = new int[0];
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public SearchIndex(CourseRepository courseRepository,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${search.index.max-postings:50000000}") long maxPostings) {
+        this.courseRepository = courseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxPostings = maxPostings;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Snapshot rebuilt = transactionTemplate.execute(status -> build());
+        snapshot = rebuilt;
+        log.info("Search index built: {} fields, {} trigrams, {} postings (about {} MB) in {} ms",
+                rebuilt.fields().length, rebuilt.postings().trigramCount(), rebuilt.postings().postingCount(),
+                rebuilt.postings().estimatedBytes() >> 20, System.currentTimeMillis() - start);
+        if (rebuilt.indexedFields() < rebuilt.fields().length) {
+            log.warn("Search index reached search.index.max-postings ({}); the last {} of {} fields are scanned "
+                    + "on every search", maxPostings, rebuilt.fields().length - rebuilt.indexedFields(),
+                    rebuilt.fields().length);
+        }
+    }
+
+    /**
+     * Number of indexed courses, i.e. the document count for relevance scoring
+     */
+    public int courseCount() {
+        return snapshot.courseCount();
+    }
+
+    /**
+     * Returns, in catalog order, every field that may contain the given
+     * search term, which must already be {@link #fold folded}: for terms of
+     * {@value #GRAM_LENGTH} or more characters the fields containing all of the
+     * term's trigrams, otherwise every field. Candidates still have to be
+     * checked against their {@link FoldedText#folded() folded text}.
+     */
+    public List<IndexedField> candidates(String searchTerm) {
+        Snapshot current = snapshot;
+
+        if (searchTerm.length() < GRAM_LENGTH) {
+            return Arrays.asList(current.fields());
+        }
+
+        int[] ordinals = intersectTrigrams(current, searchTerm);
+        List<IndexedField> candidates = new ArrayList<>(
+                ordinals.length + current.fields().length - current.indexedFields());
+        for (int ordinal : ordinals) {
+            candidates.add(current.fields()[ordinal]);
+        }
+        // Fields past max-postings are never ruled out
+        for (int ordinal = current.indexedFields(); ordinal < current.fields().length; ordinal++) {
+            candidates.add(current.fields()[ordinal]);
+        }
+        return candidates;
+    }
+
+    private int[] intersectTrigrams(Snapshot current, String searchTerm) {
+        long[] trigrams = new long[searchTerm.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = TrigramPostings.pack(searchTerm, i);
+        }
+        Arrays.sort(trigrams);
+
+        List<int[]> lists = new ArrayList<>(trigrams.length);
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i > 0 && trigrams[i] == trigrams[i - 1]) {
+                continue;
+            }
+            int[] postings = current.postings().get(trigrams[i]);
+            if (postings == null) {
+                // A trigram that occurs nowhere rules out every field
+                return EMPTY_POSTINGS;
+            }
+            lists.add(postings);
+        }
+
+        // Intersect shortest lists first so the working set shrinks fastest
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private Snapshot build() {
+        List<IndexedField> fields = new ArrayList<>();
+        // Shared by all of a course's fields
+        Map<String, String> courseTitles = new HashMap<>();
+
+        courseRepository.forEachSearchableText(new CourseRepositoryCustom.SearchableTextHandler() {
+            private String courseId;
+            private String courseTitle;
+            private String topicTitle;
+
+            @Override
+            public void course(String courseId, String title, String description) {
+                courseTitles.put(courseId, title);
+                addField(fields, FieldType.COURSE_TITLE, courseId, title, null, null, null, title);
+                addField(fields, FieldType.COURSE_DESCRIPTION, courseId, title, null, null, null, description);
+            }
+
+            @Override
+            public void topic(String courseId, String title) {
+                this.courseId = courseId;
+                courseTitle = courseTitles.get(courseId);
+                topicTitle = title;
+                addField(fields, FieldType.TOPIC_TITLE, courseId, courseTitle, title, null, null, title);
+            }
+
+            @Override
+            public void subtopic(String subtopicId, String title, String content) {
+                addField(fields, FieldType.SUBTOPIC_TITLE, courseId, courseTitle, topicTitle,
+                        subtopicId, title, title);
+                addField(fields, FieldType.SUBTOPIC_CONTENT, courseId, courseTitle, topicTitle,
+                        subtopicId, title, content);
+            }
+        });
+
+        // Average text length per field type, used for BM25 length normalisation
+        long[] totalLength = new long[FieldType.values().length];
+        int[] fieldCount = new int[FieldType.values().length];
+        for (IndexedField field : fields) {
+            totalLength[field.type().ordinal()] += field.text().length();
+            fieldCount[field.type().ordinal()]++;
+        }
+        fields.replaceAll(field -> {
+            int type = field.type().ordinal();
+            double averageLength = Math.max(1.0, (double) totalLength[type] / fieldCount[type]);
+            return field.withLengthRatio(field.text().length() / averageLength);
+        });
+
+        TrigramPostings.Builder postings = new TrigramPostings.Builder();
+        int indexedFields = 0;
+        while (indexedFields < fields.size() && postings.postingCount() < maxPostings) {
+            addTrigrams(postings, fields.get(indexedFields));
+            indexedFields++;
+        }
+
+        return new Snapshot(fields.toArray(new IndexedField[0]), postings.build(), indexedFields,
+                courseTitles.size());
+    }
+
+    private static void addTrigrams(TrigramPostings.Builder postings, IndexedField field) {
+        String folded = field.text().folded();
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            postings.add(TrigramPostings.pack(folded, i), field.ordinal());
+        }
+    }
+
+    private void addField(List<IndexedField> fields, FieldType type, String courseId, String courseTitle,
+                          String topicTitle, String subtopicId, String subtopicTitle, String text) {
+        if (text == null) {
+            return;
+        }
+        fields.add(new IndexedField(
+                fields.size(),
+                type,
+                courseId,
+                courseTitle,
+                topicTitle,
+                subtopicId,
+                subtopicTitle,
+                FoldedText.of(text),
+                1.0));
+    }
+
+    /**
+     * Lower-cases each character independently. Unlike {@link String#toLowerCase()}
+     * this never changes the length, so match offsets in the folded text can be
+     * used directly on the original.
+     */
+    public static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private record Snapshot(IndexedField[] fields, TrigramPostings postings, int indexedFields, int courseCount) {
+        static final Snapshot EMPTY = new Snapshot(new IndexedField[0], TrigramPostings.EMPTY, 0, 0);
+    }
+}
@@ -0,0 +1,153 @@
+package com.courseplatform.search;
+
+import java.util.Arrays;
+
+/**
+ * Trigram to ascending field ordinals. A trigram is keyed by its three
+ * (folded) characters packed into a {@code long}, in an open-addressing table,
+ * so there is no {@code String} or boxed key per trigram.
+ */
+final class TrigramPostings {
+
+    static final TrigramPostings EMPTY = new Builder().build();
+
+    // Packed trigrams use the low 48 bits only
+    private static final long FREE = -1L;
+
+    private final long[] keys;
+    private final int[][] postings;
+    private final int trigramCount;
+    private final long postingCount;
+
+    private TrigramPostings(long[] keys, int[][] postings, int trigramCount, long postingCount) {
+        this.keys = keys;
+        this.postings = postings;
+        this.trigramCount = trigramCount;
+        this.postingCount = postingCount;
+    }
+
+    /**
+     * The trigram of {@code foldedText} starting at {@code start}
+     */
+    static long pack(String foldedText, int start) {
+        return (long) foldedText.charAt(start) << 32 | (long) foldedText.charAt(start + 1) << 16
+                | foldedText.charAt(start + 2);
+    }
+
+    /**
+     * @return the ordinals of the fields containing the trigram, or null if none does
+     */
+    int[] get(long trigram) {
+        int mask = keys.length - 1;
+        for (int slot = slot(trigram, mask); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == trigram) {
+                return postings[slot];
+            }
+            if (keys[slot] == FREE) {
+                return null;
+            }
+        }
+    }
+
+    int trigramCount() {
+        return trigramCount;
+    }
+
+    /**
+     * Ordinals over all trigrams, i.e. the size of the index in ints
+     */
+    long postingCount() {
+        return postingCount;
+    }
+
+    /**
+     * Rough heap size: the table, an array per trigram and its ordinals
+     */
+    long estimatedBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES) + trigramCount * 16L + postingCount * Integer.BYTES;
+    }
+
+    private static int slot(long trigram, int mask) {
+        return (int) ((trigram * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    static final class Builder {
+
+        private long[] keys = newKeys(1024);
+        private int[][] postings = new int[1024][];
+        private int[] sizes = new int[1024];
+        private int trigramCount;
+        private long postingCount;
+
+        /**
+         * Fields must be added in ordinal order
+         */
+        void add(long trigram, int ordinal) {
+            int mask = keys.length - 1;
+            int slot = slot(trigram, mask);
+            while (keys[slot] != trigram && keys[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == FREE) {
+                keys[slot] = trigram;
+                postings[slot] = new int[2];
+                trigramCount++;
+            } else if (postings[slot][sizes[slot] - 1] == ordinal) {
+                // Repeats within a field can only be the last entry
+                return;
+            }
+            if (sizes[slot] == postings[slot].length) {
+                postings[slot] = Arrays.copyOf(postings[slot], sizes[slot] * 2);
+            }
+            postings[slot][sizes[slot]++] = ordinal;
+            postingCount++;
+
+            // Keep the table at most half full
+            if (trigramCount * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        long postingCount() {
+            return postingCount;
+        }
+
+        TrigramPostings build() {
+            int[][] trimmed = new int[keys.length][];
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != FREE) {
+                    trimmed[slot] = Arrays.copyOf(postings[slot], sizes[slot]);
+                }
+            }
+            return new TrigramPostings(keys, trimmed, trigramCount, postingCount);
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[][] oldPostings = postings;
+            int[] oldSizes = sizes;
+            keys = newKeys(oldKeys.length * 2);
+            postings = new int[keys.length][];
+            sizes = new int[keys.length];
+            int mask = keys.length - 1;
+            for (int old = 0; old < oldKeys.length; old++) {
+                if (oldKeys[old] == FREE) {
+                    continue;
+                }
+                int slot = slot(oldKeys[old], mask);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[old];
+                postings[slot] = oldPostings[old];
+                sizes[slot] = oldSizes[old];
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, FREE);
+            return keys;
+        }
+    }
+}
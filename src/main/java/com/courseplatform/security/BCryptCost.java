@@ -0,0 +1,58 @@
+package com.courseplatform.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * The BCrypt cost (log2 of the key-expansion rounds) new hashes are made with.
+ * Each step doubles the time a hash takes.
+ */
+@Slf4j
+public record BCryptCost(int value) {
+
+    private static final int MIN = 4;
+    private static final int MAX = 31;
+    private static final int PROBE_COST = 8;
+    private static final int MAX_PROBE_RUNS = 20;
+    private static final int RUNS_WITHOUT_IMPROVEMENT = 3;
+
+    public BCryptCost {
+        if (value < MIN || value > MAX) {
+            throw new IllegalArgumentException("BCrypt cost must be between " + MIN + " and " + MAX + ", got " + value);
+        }
+    }
+
+    /**
+     * The highest cost whose hash takes no longer than {@code target} on this
+     * machine, but at least {@code minimum}. Times hashes at a cheap cost until
+     * they stop getting faster (the first few run before the JIT has compiled
+     * BCrypt) and extrapolates from the fastest.
+     */
+    public static BCryptCost calibrate(Duration target, int minimum) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_COST);
+        long fastestNanos = Long.MAX_VALUE;
+        int runsWithoutImprovement = 0;
+        for (int i = 0; i < MAX_PROBE_RUNS && runsWithoutImprovement < RUNS_WITHOUT_IMPROVEMENT; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            long nanos = System.nanoTime() - start;
+            // Less than 5% faster is noise
+            runsWithoutImprovement = nanos < fastestNanos - fastestNanos / 20 ? 0 : runsWithoutImprovement + 1;
+            fastestNanos = Math.min(fastestNanos, nanos);
+        }
+
+        int cost = PROBE_COST;
+        while (cost < MAX && fastestNanos << (cost + 1 - PROBE_COST) <= target.toNanos()) {
+            cost++;
+        }
+        while (cost > MIN && fastestNanos << (cost - PROBE_COST) > target.toNanos()) {
+            cost--;
+        }
+        int calibrated = Math.max(cost, minimum);
+        log.info("BCrypt cost {} calibrated for {} ms per hash (cost {} took {} ms); set BCRYPT_COST to pin it",
+                calibrated, target.toMillis(), PROBE_COST, String.format("%.2f", fastestNanos / 1_000_000.0));
+        return new BCryptCost(calibrated);
+    }
+}
@@ -1,28 +1,71 @@
 package com.courseplatform.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(java.util.Base64.getEncoder().encodeToString(jwtSecret.getBytes()));
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * {@code jwt.validation} timers by result: answered from the verified token
+     * cache, signature verified, or rejected
+     */
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+
+    /**
+     * Recently verified tokens (SHA-256 digest -> claims), so a repeated bearer
+     * token skips signature verification until it expires
+     */
+    private final Map<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        // Key and parser are immutable and thread-safe - build them once
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+
+        cachedTimer = validationTimer("cached");
+        verifiedTimer = validationTimer("verified");
+        rejectedTimer = validationTimer("rejected");
     }
 
     public String generateToken(String email) {
@@ -33,27 +76,43 @@ public class JwtTokenProvider {
                 .subject(email)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies the token and returns its claims in a single parse,
+     * or empty if the token is invalid or expired
+     */
+    public Optional<Claims> validateAndGetClaims(String token) {
+        long start = System.nanoTime();
+        if (token == null || token.isEmpty()) {
+            log.error("JWT claims string is empty");
+            return record(rejectedTimer, start, Optional.empty());
+        }
+
+        String digest = digest(token);
+        Claims cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (cached.getExpiration().after(new Date())) {
+                return record(cachedTimer, start, Optional.of(cached));
+            }
+            verifiedTokens.remove(digest);
+            log.error("Expired JWT token");
+            return record(rejectedTimer, start, Optional.empty());
+        }
 
-        return claims.getSubject();
+        Optional<Claims> claims = parse(token, digest);
+        return record(claims.isPresent() ? verifiedTimer : rejectedTimer, start, claims);
     }
 
-    public boolean validateToken(String token) {
+    private Optional<Claims> parse(String token, String digest) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                remember(digest, claims);
+            }
+            return Optional.of(claims);
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -65,10 +124,59 @@ public class JwtTokenProvider {
         } catch (Exception ex) {
             log.error("JWT validation error: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    public String getEmailFromToken(String token) {
+        return validateAndGetClaims(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid JWT token"));
+    }
+
+    public boolean validateToken(String token) {
+        return validateAndGetClaims(token).isPresent();
     }
 
     public Long getExpirationInSeconds() {
         return jwtExpiration / 1000; // Convert milliseconds to seconds
     }
+
+    private Timer validationTimer(String result) {
+        return Timer.builder("jwt.validation")
+                .description("Bearer token validations")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Optional<Claims> record(Timer timer, long start, Optional<Claims> claims) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
+    private void remember(String digest, Claims claims) {
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            Date now = new Date();
+            verifiedTokens.values().removeIf(c -> !c.getExpiration().after(now));
+
+            // Still full of live tokens: drop arbitrary ones down to 90% capacity
+            Iterator<String> keys = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() >= verifiedCacheMaxSize * 9 / 10 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        verifiedTokens.put(digest, claims);
+    }
+
+    /**
+     * Cache key for a token; the raw bearer token itself is never kept
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
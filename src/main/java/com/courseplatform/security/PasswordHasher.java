@@ -0,0 +1,145 @@
+package com.courseplatform.security;
+
+import com.courseplatform.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs password hashing and verification on a small pool of its own.
+ * <p>
+ * BCrypt is deliberately slow, so a burst of logins would otherwise take
+ * every core for as long as it lasts. The pool has one thread per core
+ * (or {@code password-hashing.threads}) and a bounded queue; when the queue
+ * is full callers get a {@link ServiceUnavailableException} straight away
+ * instead of waiting behind work that will not finish in time. The calling
+ * thread still waits for its own hash, but parked, not on a core.
+ */
+@Slf4j
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int cost;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          BCryptCost bcryptCost,
+                          MeterRegistry meterRegistry,
+                          @Value("${password-hashing.threads:0}") int threads,
+                          @Value("${password-hashing.queue-per-thread:8}") int queuePerThread,
+                          @Value("${password-hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.cost = bcryptCost.value();
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * Math.max(queuePerThread, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        this.rejected = meterRegistry.counter("password.hashing.rejected");
+        log.info("Password hashing on {} threads, at most {} queued, BCrypt cost {}",
+                poolSize, executor.getQueue().remainingCapacity(), cost);
+    }
+
+    /**
+     * @throws ServiceUnavailableException if the pool is saturated
+     */
+    public String hash(CharSequence rawPassword) {
+        return await(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * @throws ServiceUnavailableException if the pool is saturated
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether the hash was made with a lower BCrypt cost than the current one.
+     * Hashes with a higher cost (from before the cost was lowered) are kept.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < cost;
+    }
+
+    /**
+     * Hashes the password with the current cost and hands the result to
+     * {@code store}, on the hashing pool. Only done while nothing is queued,
+     * so it never delays a login; if skipped, the user's next login tries again.
+     */
+    public void rehashInBackground(CharSequence rawPassword, Consumer<String> store) {
+        if (!executor.getQueue().isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    store.accept(passwordEncoder.encode(rawPassword));
+                } catch (RuntimeException e) {
+                    log.warn("Rehashing a password failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Hashing pool busy, rehash skipped");
+        }
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many sign-ins in progress, please retry shortly",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while hashing the password", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
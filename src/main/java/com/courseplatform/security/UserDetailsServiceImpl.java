@@ -2,29 +2,43 @@ package com.courseplatform.security;
 
 import com.courseplatform.entity.User;
 import com.courseplatform.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final MeterRegistry meterRegistry;
 
+    /**
+     * Timed as {@code users.lookup}, tagged with whether the user was found
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Optional<User> user = userRepository.findByEmail(email);
+        sample.stop(meterRegistry.timer("users.lookup", "result", user.isPresent() ? "found" : "not_found"));
+
+        return user.map(found -> new UserPrincipal(found.getId(), found.getEmail(), found.getPassword()))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(Collections.emptyList())
-                .build();
+    /**
+     * Resolves the principal for an already authenticated request (e.g. a valid JWT),
+     * served from {@link UserPrincipalCache} so the hot path makes no user lookups.
+     * The returned principal carries no password.
+     */
+    public UserPrincipal loadPrincipal(String email) throws UsernameNotFoundException {
+        return userPrincipalCache.get(email, key -> (UserPrincipal) loadUserByUsername(key));
     }
 }
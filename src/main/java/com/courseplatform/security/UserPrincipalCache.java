@@ -0,0 +1,75 @@
+package com.courseplatform.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by email.
+ * <p>
+ * Lets the JWT filter resolve the caller without a users-table lookup on
+ * every request. Entries expire after {@code security.principal-cache.ttl-ms}
+ * and are evicted explicitly when a user row is written or deleted.
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+
+    @Value("${security.principal-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public UserPrincipal get(String email, Function<String, UserPrincipal> loader) {
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.principal();
+        }
+
+        UserPrincipal principal = loader.apply(email).withoutPassword();
+        if (entries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        entries.put(email, new Entry(principal, now + ttlMillis));
+        return principal;
+    }
+
+    public void evict(Long userId, String email) {
+        if (email != null) {
+            entries.remove(email);
+        }
+        // The email may have changed, so also drop any entry for the same id
+        if (userId != null) {
+            entries.values().removeIf(entry -> userId.equals(entry.principal().getId()));
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void makeRoom(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        // Still full of live entries: drop arbitrary ones down to 90% capacity
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize * 9 / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        log.debug("Principal cache trimmed to {} entries", entries.size());
+    }
+
+    private record Entry(UserPrincipal principal, long expiresAt) {
+    }
+}
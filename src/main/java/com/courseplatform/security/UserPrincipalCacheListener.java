@@ -0,0 +1,25 @@
+package com.courseplatform.security;
+
+import com.courseplatform.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that keeps {@link UserPrincipalCache} in step with the users table
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCacheListener {
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        userPrincipalCache.evict(user.getId(), user.getEmail());
+    }
+}
@@ -9,11 +9,11 @@ import com.courseplatform.exception.DuplicateEmailException;
 import com.courseplatform.exception.InvalidCredentialsException;
 import com.courseplatform.repository.UserRepository;
 import com.courseplatform.security.JwtTokenProvider;
+import com.courseplatform.security.PasswordHasher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
@@ -21,10 +21,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtTokenProvider jwtTokenProvider;
 
-    @Transactional
+    /**
+     * Not one transaction: the password is hashed between the email check and
+     * the insert, and no connection should be held while that runs. The unique
+     * constraint on email still catches a concurrent registration.
+     */
     public RegisterResponse register(RegisterRequest request) {
         log.info("Attempting to register user with email: {}", request.getEmail());
         
@@ -36,10 +40,15 @@ public class AuthService {
         // Create new user
         User user = User.builder()
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHasher.hash(request.getPassword()))
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateEmailException("Email already exists");
+        }
         
         log.info("Successfully registered user with id: {}", savedUser.getId());
 
@@ -58,10 +67,18 @@ public class AuthService {
                 .orElseThrow(InvalidCredentialsException::new);
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException();
         }
 
+        // Bring hashes made with another cost up to date while we have the password
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            Long userId = user.getId();
+            String currentPassword = user.getPassword();
+            passwordHasher.rehashInBackground(request.getPassword(),
+                    newPassword -> userRepository.updatePassword(userId, currentPassword, newPassword));
+        }
+
         // Generate JWT token
         String token = jwtTokenProvider.generateToken(user.getEmail());
         
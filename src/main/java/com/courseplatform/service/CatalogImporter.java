@@ -0,0 +1,258 @@
+package com.courseplatform.service;
+
+import com.courseplatform.dto.seed.SeedSubtopicDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a catalog file ({@code {"courses": [...]}}) into the database.
+ * <p>
+ * The file is read token by token, so memory use does not grow with its
+ * size: only the current course, topic and subtopic plus one batch of pending
+ * rows per table are held at a time. Rows are written with JDBC batch upserts
+ * in parent-before-child order, and rows that are unchanged are left alone,
+ * so importing the same catalog again is cheap and safe. A course's
+ * {@code id}, {@code title} and {@code description} must come before its
+ * {@code topics}, as they do in the seed file; the same goes for topics and
+ * their {@code subtopics}.
+ * <p>
+ * Runs in the caller's transaction. Courses, topics or subtopics missing from
+ * the file are not deleted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogImporter {
+
+    private static final String UPSERT_COURSE_SQL = """
+            INSERT INTO courses (id, title, description) VALUES (?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET title = EXCLUDED.title, description = EXCLUDED.description
+            WHERE (courses.title, courses.description) IS DISTINCT FROM (EXCLUDED.title, EXCLUDED.description)
+            """;
+
+    private static final String UPSERT_TOPIC_SQL = """
+            INSERT INTO topics (id, title, order_index, course_id) VALUES (?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE
+            SET title = EXCLUDED.title, order_index = EXCLUDED.order_index, course_id = EXCLUDED.course_id
+            WHERE (topics.title, topics.order_index, topics.course_id)
+                  IS DISTINCT FROM (EXCLUDED.title, EXCLUDED.order_index, EXCLUDED.course_id)
+            """;
+
+    private static final String UPSERT_SUBTOPIC_SQL = """
+            INSERT INTO subtopics (id, title, content, order_index, topic_id) VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE
+            SET title = EXCLUDED.title, content = EXCLUDED.content,
+                order_index = EXCLUDED.order_index, topic_id = EXCLUDED.topic_id
+            WHERE (subtopics.title, subtopics.content, subtopics.order_index, subtopics.topic_id)
+                  IS DISTINCT FROM (EXCLUDED.title, EXCLUDED.content, EXCLUDED.order_index, EXCLUDED.topic_id)
+            """;
+
+    private static final int PROGRESS_LOG_INTERVAL = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${seed.import.batch-size:500}")
+    private int batchSize;
+
+    public ImportResult importCatalog(InputStream input) throws IOException {
+        Batches batches = new Batches();
+        long start = System.nanoTime();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("courses".equals(field)) {
+                    expect(parser.currentToken(), JsonToken.START_ARRAY, parser);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readCourse(parser, batches);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            batches.flush();
+
+            long elapsedNanos = System.nanoTime() - start;
+            ImportResult result = new ImportResult(batches.courses, batches.topics, batches.subtopics,
+                    batches.changedRows, parser.currentLocation().getByteOffset(), elapsedNanos / 1_000_000);
+            log.info("Catalog import finished: {} courses, {} topics, {} subtopics ({} rows inserted or changed), "
+                            + "{} KB in {} ms - {} rows/s, {} KB/s",
+                    result.courses(), result.topics(), result.subtopics(), result.changedRows(),
+                    result.bytes() / 1024, result.elapsedMillis(),
+                    perSecond(result.courses() + result.topics() + result.subtopics(), elapsedNanos),
+                    perSecond(result.bytes() / 1024, elapsedNanos));
+            return result;
+        }
+    }
+
+    private void readCourse(JsonParser parser, Batches batches) throws IOException {
+        String id = null;
+        String title = null;
+        String description = null;
+        boolean written = false;
+        int topicIndex = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsString();
+                case "title" -> title = parser.getValueAsString();
+                case "description" -> description = parser.getValueAsString();
+                case "topics" -> {
+                    if (!written) {
+                        batches.addCourse(requireId(id, "course", parser), title, description);
+                        written = true;
+                    }
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            readTopic(parser, batches, id, topicIndex++);
+                        }
+                    } else {
+                        // Not a list of topics; step over it so its fields aren't read as the course's
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (!written) {
+            batches.addCourse(requireId(id, "course", parser), title, description);
+        }
+    }
+
+    private void readTopic(JsonParser parser, Batches batches, String courseId, int orderIndex) throws IOException {
+        String id = null;
+        String title = null;
+        boolean written = false;
+        int subtopicIndex = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsString();
+                case "title" -> title = parser.getValueAsString();
+                case "subtopics" -> {
+                    if (!written) {
+                        batches.addTopic(requireId(id, "topic", parser), title, orderIndex, courseId);
+                        written = true;
+                    }
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            // A subtopic is small and self-contained, so bind it directly
+                            SeedSubtopicDto subtopic = objectMapper.readValue(parser, SeedSubtopicDto.class);
+                            batches.addSubtopic(requireId(subtopic.getId(), "subtopic", parser),
+                                    subtopic.getTitle(), subtopic.getContent(), subtopicIndex++, id);
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (!written) {
+            batches.addTopic(requireId(id, "topic", parser), title, orderIndex, courseId);
+        }
+    }
+
+    private static String requireId(String id, String kind, JsonParser parser) {
+        if (id == null) {
+            throw new IllegalArgumentException("Catalog " + kind + " without an id before its children at "
+                    + parser.currentLocation().offsetDescription());
+        }
+        return id;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, JsonParser parser) {
+        if (actual != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " but found " + actual + " at "
+                    + parser.currentLocation().offsetDescription());
+        }
+    }
+
+    private static long perSecond(long count, long elapsedNanos) {
+        return elapsedNanos > 0 ? count * 1_000_000_000L / elapsedNanos : count;
+    }
+
+    /**
+     * Pending rows per table. When any table fills up, all three are flushed in
+     * parent-before-child order so foreign keys always resolve.
+     */
+    private final class Batches {
+        private final List<Object[]> courseRows = new ArrayList<>();
+        private final List<Object[]> topicRows = new ArrayList<>();
+        private final List<Object[]> subtopicRows = new ArrayList<>();
+        private int courses;
+        private int topics;
+        private int subtopics;
+        private long changedRows;
+
+        void addCourse(String id, String title, String description) {
+            courseRows.add(new Object[]{id, title, description});
+            courses++;
+            flushIfFull(courseRows);
+        }
+
+        void addTopic(String id, String title, int orderIndex, String courseId) {
+            topicRows.add(new Object[]{id, title, orderIndex, courseId});
+            topics++;
+            flushIfFull(topicRows);
+        }
+
+        void addSubtopic(String id, String title, String content, int orderIndex, String topicId) {
+            subtopicRows.add(new Object[]{id, title, content, orderIndex, topicId});
+            subtopics++;
+            if (subtopics % PROGRESS_LOG_INTERVAL == 0) {
+                log.info("Catalog import: {} courses, {} topics, {} subtopics so far", courses, topics, subtopics);
+            }
+            flushIfFull(subtopicRows);
+        }
+
+        private void flushIfFull(List<Object[]> rows) {
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            changedRows += write(UPSERT_COURSE_SQL, courseRows);
+            changedRows += write(UPSERT_TOPIC_SQL, topicRows);
+            changedRows += write(UPSERT_SUBTOPIC_SQL, subtopicRows);
+        }
+
+        private long write(String sql, List<Object[]> rows) {
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            long changed = 0;
+            for (int count : jdbcTemplate.batchUpdate(sql, rows)) {
+                // Drivers may report SUCCESS_NO_INFO (-2) instead of a row count
+                changed += Math.max(count, 0);
+            }
+            rows.clear();
+            return changed;
+        }
+    }
+
+    public record ImportResult(int courses, int topics, int subtopics, long changedRows,
+                               long bytes, long elapsedMillis) {
+    }
+}
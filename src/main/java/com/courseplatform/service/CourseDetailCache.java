@@ -0,0 +1,113 @@
+package com.courseplatform.service;
+
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.event.CourseCatalogChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of fully encoded course detail responses.
+ * <p>
+ * Course content only changes when the catalog is reloaded, so each course is
+ * serialized (and gzip-compressed) once per content version and the bytes are
+ * written straight to the response. Entries are tagged with the content version
+ * they were built from; a {@link CourseCatalogChangedEvent} bumps the version,
+ * which invalidates every entry, including ones still being built.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseDetailCache {
+
+    private static final int MIN_GZIP_SIZE = 1024;
+
+    private final CourseService courseService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${course.detail-cache.max-entries:1000}")
+    private int maxEntries;
+
+    private final AtomicLong contentVersion = new AtomicLong();
+
+    // Access-ordered, so the least recently served course is evicted first
+    private final Map<String, CachedCourseDetail> entries = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedCourseDetail> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+
+    public CachedCourseDetail get(String courseId) {
+        long version = contentVersion.get();
+
+        CachedCourseDetail cached = entries.get(courseId);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+
+        CachedCourseDetail loaded = load(courseId, version);
+        entries.put(courseId, loaded);
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        contentVersion.incrementAndGet();
+        entries.clear();
+        log.debug("Course detail cache invalidated");
+    }
+
+    private CachedCourseDetail load(String courseId, long version) {
+        CourseDetailResponse response = courseService.getCourseById(courseId);
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize course " + courseId, e);
+        }
+
+        // Small bodies are not worth the Content-Encoding overhead
+        byte[] gzip = json.length >= MIN_GZIP_SIZE ? gzip(json) : null;
+
+        log.debug("Cached course {} (version {}): {} bytes, {} gzipped",
+                courseId, version, json.length, gzip != null ? gzip.length : "not");
+        return new CachedCourseDetail(version, CourseService.strongETag(json), json, gzip);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encoded course detail. The gzip variant, when present, has its own ETag
+     * since it is a different representation of the same resource.
+     */
+    public record CachedCourseDetail(long version, String etag, byte[] json, byte[] gzip) {
+
+        public String gzipETag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+}
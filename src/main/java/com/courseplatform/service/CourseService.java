@@ -4,14 +4,28 @@ import com.courseplatform.dto.response.*;
 import com.courseplatform.entity.Course;
 import com.courseplatform.entity.Subtopic;
 import com.courseplatform.entity.Topic;
+import com.courseplatform.event.CourseCatalogChangedEvent;
 import com.courseplatform.exception.ResourceNotFoundException;
 import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.repository.TopicRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -20,30 +34,105 @@ import java.util.stream.Collectors;
 public class CourseService {
 
         private final CourseRepository courseRepository;
+        private final TopicRepository topicRepository;
+        private final SubtopicRepository subtopicRepository;
+        private final TransactionTemplate transactionTemplate;
+        private final ObjectMapper objectMapper;
+
+        /**
+         * Precomputed course list, rebuilt only when the catalog changes
+         */
+        private volatile CourseCatalog catalog;
+
+        /**
+         * Serializes rebuilds. A lock rather than {@code synchronized}, which would
+         * pin a virtual thread to its carrier for the whole database round trip.
+         */
+        private final ReentrantLock refreshLock = new ReentrantLock();
+
+        public CourseCatalog getAllCourses() {
+                CourseCatalog current = catalog;
+                return current != null ? current : refreshCatalog();
+        }
 
-        @Transactional(readOnly = true)
-        public CourseListResponse getAllCourses() {
-                log.debug("Fetching all courses");
-
-                List<Course> courses = courseRepository.findAll();
+        @EventListener(ApplicationReadyEvent.class)
+        public void onApplicationReady() {
+                refreshCatalog();
+        }
 
-                List<CourseSummaryDto> courseSummaries = courses.stream()
-                                .map(this::mapToCourseSummary)
-                                .collect(Collectors.toList());
+        @TransactionalEventListener(fallbackExecution = true)
+        public void onCatalogChanged(CourseCatalogChangedEvent event) {
+                refreshCatalog();
+        }
 
-                return CourseListResponse.builder()
-                                .courses(courseSummaries)
-                                .build();
+        /**
+         * Rebuilds the course list snapshot. Rebuilds run one at a time so that the
+         * last snapshot published is always the one built from the latest data.
+         */
+        public CourseCatalog refreshCatalog() {
+                refreshLock.lock();
+                try {
+                        log.debug("Building course catalog snapshot");
+
+                        List<CourseSummaryDto> courseSummaries = transactionTemplate.execute(status ->
+                                        courseRepository.findAll().stream()
+                                                        .map(this::mapToCourseSummary)
+                                                        .collect(Collectors.toList()));
+
+                        CourseListResponse response = CourseListResponse.builder()
+                                        .courses(List.copyOf(courseSummaries))
+                                        .build();
+
+                        catalog = new CourseCatalog(response, computeETag(response));
+                        log.info("Course catalog snapshot built: {} courses, ETag {}",
+                                        courseSummaries.size(), catalog.etag());
+                        return catalog;
+                } finally {
+                        refreshLock.unlock();
+                }
         }
 
         @Transactional(readOnly = true)
         public CourseDetailResponse getCourseById(String courseId) {
                 log.debug("Fetching course with id: {}", courseId);
 
-                Course course = courseRepository.findByIdWithTopicsAndSubtopics(courseId)
+                // Load each level of the tree once instead of one joined row per subtopic
+                Course course = courseRepository.findById(courseId)
                                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
 
-                return mapToCourseDetail(course);
+                List<Topic> topics = topicRepository.findByCourseIdOrderByOrderIndexAsc(courseId);
+
+                List<String> topicIds = topics.stream()
+                                .map(Topic::getId)
+                                .collect(Collectors.toList());
+
+                Map<String, List<Subtopic>> subtopicsByTopic = topicIds.isEmpty()
+                                ? Map.of()
+                                : subtopicRepository.findByTopicIdInOrderByOrderIndexAsc(topicIds).stream()
+                                                .collect(Collectors.groupingBy(s -> s.getTopic().getId()));
+
+                return mapToCourseDetail(course, topics, subtopicsByTopic);
+        }
+
+        /**
+         * Strong ETag derived from the serialized representation, so it only
+         * changes when the response body does
+         */
+        private String computeETag(Object body) {
+                try {
+                        return strongETag(objectMapper.writeValueAsBytes(body));
+                } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("Unable to compute ETag", e);
+                }
+        }
+
+        static String strongETag(byte[] body) {
+                try {
+                        byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+                        return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+                } catch (NoSuchAlgorithmException e) {
+                        throw new IllegalStateException("Unable to compute ETag", e);
+                }
         }
 
         private CourseSummaryDto mapToCourseSummary(Course course) {
@@ -61,9 +150,11 @@ public class CourseService {
                                 .build();
         }
 
-        private CourseDetailResponse mapToCourseDetail(Course course) {
-                List<TopicDto> topicDtos = course.getTopics().stream()
-                                .map(this::mapToTopicDto)
+        CourseDetailResponse mapToCourseDetail(Course course, List<Topic> topics,
+                                               Map<String, List<Subtopic>> subtopicsByTopic) {
+                List<TopicDto> topicDtos = topics.stream()
+                                .map(topic -> mapToTopicDto(topic,
+                                                subtopicsByTopic.getOrDefault(topic.getId(), List.of())))
                                 .collect(Collectors.toList());
 
                 return CourseDetailResponse.builder()
@@ -74,8 +165,8 @@ public class CourseService {
                                 .build();
         }
 
-        private TopicDto mapToTopicDto(Topic topic) {
-                List<SubtopicDto> subtopicDtos = topic.getSubtopics().stream()
+        private TopicDto mapToTopicDto(Topic topic, List<Subtopic> subtopics) {
+                List<SubtopicDto> subtopicDtos = subtopics.stream()
                                 .map(this::mapToSubtopicDto)
                                 .collect(Collectors.toList());
 
@@ -93,4 +184,10 @@ public class CourseService {
                                 .content(subtopic.getContent())
                                 .build();
         }
+
+        /**
+         * Immutable course list together with its strong ETag
+         */
+        public record CourseCatalog(CourseListResponse response, String etag) {
+        }
 }
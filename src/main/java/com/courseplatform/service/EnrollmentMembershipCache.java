@@ -0,0 +1,128 @@
+package com.courseplatform.service;
+
+import com.courseplatform.event.EnrollmentCreatedEvent;
+import com.courseplatform.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of which courses each user is enrolled in.
+ * <p>
+ * A user's enrollments are loaded with one query the first time they are
+ * needed and kept as a bitset over course ordinals. Enrollments are never
+ * deleted, so a cached "enrolled" is always right. A cached "not enrolled"
+ * is trusted for {@code enrollment.membership-cache.refresh-ms} after loading;
+ * enrollments made through this instance are added as they commit, and the
+ * refresh picks up ones made elsewhere.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnrollmentMembershipCache {
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    @Value("${enrollment.membership-cache.refresh-ms:60000}")
+    private long refreshMillis;
+
+    @Value("${enrollment.membership-cache.max-users:100000}")
+    private int maxUsers;
+
+    private final Map<Long, Membership> memberships = new ConcurrentHashMap<>();
+
+    // Course id -> bit index; courses are few, so ordinals are never reclaimed
+    private final Map<String, Integer> courseOrdinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    // Bumped on every enrollment, so a load that raced with one is not kept
+    private final AtomicLong enrollmentGeneration = new AtomicLong();
+
+    public boolean isEnrolled(Long userId, String courseId) {
+        long now = System.currentTimeMillis();
+
+        Membership membership = memberships.get(userId);
+        if (membership != null) {
+            if (membership.contains(courseOrdinals.get(courseId))) {
+                return true;
+            }
+            if (now - membership.loadedAt() < refreshMillis) {
+                return false;
+            }
+        }
+
+        return load(userId, now).contains(courseOrdinals.get(courseId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEnrollmentCreated(EnrollmentCreatedEvent event) {
+        enrollmentGeneration.incrementAndGet();
+        int ordinal = ordinal(event.getCourseId());
+        memberships.computeIfPresent(event.getUserId(), (userId, membership) -> membership.with(ordinal));
+    }
+
+    public void clear() {
+        memberships.clear();
+    }
+
+    private Membership load(Long userId, long now) {
+        long generation = enrollmentGeneration.get();
+
+        List<String> courseIds = enrollmentRepository.findCourseIdsByUserId(userId);
+        BitSet courses = new BitSet();
+        for (String courseId : courseIds) {
+            courses.set(ordinal(courseId));
+        }
+        Membership loaded = new Membership(courses, now);
+
+        if (memberships.size() >= maxUsers) {
+            makeRoom();
+        }
+        memberships.put(userId, loaded);
+        if (enrollmentGeneration.get() != generation) {
+            // An enrollment committed while loading may be missing; don't keep a possibly stale negative
+            memberships.remove(userId, loaded);
+        }
+        return loaded;
+    }
+
+    private int ordinal(String courseId) {
+        return courseOrdinals.computeIfAbsent(courseId, id -> nextOrdinal.getAndIncrement());
+    }
+
+    private void makeRoom() {
+        // Drop arbitrary users down to 90% capacity; they are reloaded on demand
+        Iterator<Long> keys = memberships.keySet().iterator();
+        while (memberships.size() >= maxUsers * 9 / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+        log.debug("Enrollment membership cache trimmed to {} users", memberships.size());
+    }
+
+    /**
+     * Immutable once published; an enrollment produces a copy
+     */
+    private record Membership(BitSet courses, long loadedAt) {
+
+        boolean contains(Integer ordinal) {
+            return ordinal != null && courses.get(ordinal);
+        }
+
+        Membership with(int ordinal) {
+            BitSet copy = (BitSet) courses.clone();
+            copy.set(ordinal);
+            return new Membership(copy, loadedAt);
+        }
+    }
+}
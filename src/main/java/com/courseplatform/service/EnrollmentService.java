@@ -5,6 +5,7 @@ import com.courseplatform.dto.response.EnrollmentResponse;
 import com.courseplatform.entity.Course;
 import com.courseplatform.entity.Enrollment;
 import com.courseplatform.entity.User;
+import com.courseplatform.event.EnrollmentCreatedEvent;
 import com.courseplatform.exception.DuplicateEnrollmentException;
 import com.courseplatform.exception.ResourceNotFoundException;
 import com.courseplatform.repository.CourseRepository;
@@ -12,20 +13,29 @@ import com.courseplatform.repository.EnrollmentRepository;
 import com.courseplatform.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EnrollmentService {
 
+    private static final int MAX_LIMIT = 100;
+
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final EnrollmentMembershipCache membershipCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public EnrollmentResponse enrollInCourse(Long userId, String courseId) {
@@ -40,17 +50,23 @@ public class EnrollmentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Course", "id", courseId));
 
         // Check if already enrolled
-        if (enrollmentRepository.existsByUserIdAndCourseId(userId, courseId)) {
+        if (membershipCache.isEnrolled(userId, courseId)) {
             throw new DuplicateEnrollmentException("You are already enrolled in this course");
         }
 
-        // Create enrollment
+        // Create enrollment; the unique constraint catches an enrollment the cache hasn't seen yet
         Enrollment enrollment = Enrollment.builder()
                 .user(user)
                 .course(course)
                 .build();
 
-        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        Enrollment savedEnrollment;
+        try {
+            savedEnrollment = enrollmentRepository.saveAndFlush(enrollment);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateEnrollmentException("You are already enrolled in this course");
+        }
+        eventPublisher.publishEvent(new EnrollmentCreatedEvent(userId, courseId));
         
         log.info("User {} successfully enrolled in course {} with enrollment id {}", 
                 userId, courseId, savedEnrollment.getId());
@@ -58,24 +74,69 @@ public class EnrollmentService {
         return mapToEnrollmentResponse(savedEnrollment, course);
     }
 
+    /**
+     * One page of the user's enrollments, newest first. Selects only the columns
+     * the response needs in a single query and pages by (enrolledAt, id), so
+     * later pages cost the same as the first.
+     */
     @Transactional(readOnly = true)
-    public EnrollmentListResponse getUserEnrollments(Long userId) {
-        log.debug("Fetching enrollments for user {}", userId);
+    public EnrollmentListResponse getUserEnrollments(Long userId, int limit, String cursor) {
+        log.debug("Fetching enrollments for user {} (limit {}, cursor {})", userId, limit, cursor);
+
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
 
-        List<Enrollment> enrollments = enrollmentRepository.findByUserIdOrderByEnrolledAtDesc(userId);
+        // One extra row tells us whether there is another page
+        List<EnrollmentResponse> enrollments;
+        if (cursor == null) {
+            enrollments = enrollmentRepository.findPageByUserId(userId, Limit.of(limit + 1));
+        } else {
+            EnrollmentCursor after = decodeCursor(cursor);
+            enrollments = enrollmentRepository.findPageByUserIdAfter(
+                    userId, after.enrolledAt(), after.enrollmentId(), Limit.of(limit + 1));
+        }
 
-        List<EnrollmentResponse> enrollmentResponses = enrollments.stream()
-                .map(e -> mapToEnrollmentResponse(e, e.getCourse()))
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (enrollments.size() > limit) {
+            enrollments = enrollments.subList(0, limit);
+            nextCursor = encodeCursor(enrollments.get(limit - 1));
+        }
 
         return EnrollmentListResponse.builder()
-                .enrollments(enrollmentResponses)
+                .enrollments(enrollments)
+                .nextCursor(nextCursor)
                 .build();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Answered from the membership cache; only queries when the user's
+     * enrollments aren't cached or a cached "no" is due for a refresh
+     */
     public boolean isUserEnrolledInCourse(Long userId, String courseId) {
-        return enrollmentRepository.existsByUserIdAndCourseId(userId, courseId);
+        return membershipCache.isEnrolled(userId, courseId);
+    }
+
+    /**
+     * Cursor is the enrolledAt and id of the last enrollment on the previous page
+     */
+    private static String encodeCursor(EnrollmentResponse last) {
+        String raw = last.getEnrolledAt() + "|" + last.getEnrollmentId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static EnrollmentCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new EnrollmentCursor(Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid enrollment cursor");
+        }
+    }
+
+    private record EnrollmentCursor(Instant enrolledAt, Long enrollmentId) {
     }
 
     private EnrollmentResponse mapToEnrollmentResponse(Enrollment enrollment, Course course) {
@@ -1,25 +1,27 @@
 package com.courseplatform.service;
 
+import com.courseplatform.dto.response.BatchCompletionItemDto;
+import com.courseplatform.dto.response.BatchCompletionResponse;
 import com.courseplatform.dto.response.CompletedItemDto;
 import com.courseplatform.dto.response.ProgressResponse;
 import com.courseplatform.dto.response.SubtopicCompletionResponse;
 import com.courseplatform.entity.Enrollment;
-import com.courseplatform.entity.Subtopic;
 import com.courseplatform.entity.SubtopicProgress;
-import com.courseplatform.entity.User;
+import com.courseplatform.event.CourseCatalogChangedEvent;
 import com.courseplatform.exception.NotEnrolledException;
 import com.courseplatform.exception.ResourceNotFoundException;
 import com.courseplatform.repository.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,66 +32,178 @@ public class ProgressService {
     private final SubtopicProgressRepository progressRepository;
     private final SubtopicRepository subtopicRepository;
     private final EnrollmentRepository enrollmentRepository;
-    private final UserRepository userRepository;
+    private final EnrollmentService enrollmentService;
+    private final ProgressWriteBehind writeBehind;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
-    @Transactional
-    public SubtopicCompletionResponse markSubtopicComplete(Long userId, String subtopicId) {
-        log.info("User {} marking subtopic {} as complete", userId, subtopicId);
+    /**
+     * Subtopic count per course; only changes when the catalog is reloaded
+     */
+    private final Map<String, Integer> totalSubtopicsByCourse = new ConcurrentHashMap<>();
+
+    /**
+     * Course and title per subtopic, for validating queued completions without a query
+     */
+    private final Map<String, SubtopicRef> subtopicRefs = new ConcurrentHashMap<>();
 
-        // Get subtopic with course info
-        Subtopic subtopic = subtopicRepository.findByIdWithTopicAndCourse(subtopicId)
-                .orElseThrow(() -> new ResourceNotFoundException("Subtopic", "id", subtopicId));
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CourseCatalogChangedEvent event) {
+        totalSubtopicsByCourse.clear();
+        subtopicRefs.clear();
+    }
 
-        String courseId = subtopic.getTopic().getCourse().getId();
+    /**
+     * Not transactional itself: with write-behind enabled a completion that is
+     * only queued never needs a connection on the request thread. Timed as
+     * {@code progress.complete}.
+     */
+    public SubtopicCompletionResponse markSubtopicComplete(Long userId, String subtopicId) {
+        return meterRegistry.timer("progress.complete")
+                .record(() -> doMarkSubtopicComplete(userId, subtopicId));
+    }
 
-        // Check if user is enrolled in the course
-        if (!enrollmentRepository.existsByUserIdAndCourseId(userId, courseId)) {
-            throw new NotEnrolledException("You must be enrolled in this course to mark subtopics as complete");
+    private SubtopicCompletionResponse doMarkSubtopicComplete(Long userId, String subtopicId) {
+        log.info("User {} marking subtopic {} as complete", userId, subtopicId);
+
+        if (writeBehind.isEnabled()) {
+            return queueSubtopicComplete(userId, subtopicId);
         }
 
-        // Check if already marked complete (idempotent operation)
-        Optional<SubtopicProgress> existingProgress = 
-                progressRepository.findByUserIdAndSubtopicId(userId, subtopicId);
+        // Enrollment check, insert and counter update in one idempotent statement
+        SubtopicProgressRepositoryCustom.Completion completion = transactionTemplate.execute(status ->
+                progressRepository.upsertCompletion(userId, subtopicId, Instant.now()))
+                .orElseThrow(() -> completionRejected(subtopicId));
 
-        if (existingProgress.isPresent()) {
-            // Already complete - return existing progress (idempotent)
-            SubtopicProgress progress = existingProgress.get();
+        if (completion.inserted()) {
+            log.info("User {} successfully marked subtopic {} as complete", userId, subtopicId);
+        } else {
             log.debug("Subtopic {} already marked complete for user {}", subtopicId, userId);
-            
-            return SubtopicCompletionResponse.builder()
-                    .subtopicId(subtopicId)
-                    .completed(progress.getCompleted())
-                    .completedAt(progress.getCompletedAt())
-                    .build();
         }
 
-        // Get user
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-
-        // Create new progress record
-        SubtopicProgress progress = SubtopicProgress.builder()
-                .user(user)
-                .subtopic(subtopic)
+        return SubtopicCompletionResponse.builder()
+                .subtopicId(subtopicId)
                 .completed(true)
-                .completedAt(Instant.now())
+                .completedAt(completion.completedAt())
                 .build();
+    }
+
+    /**
+     * Validates the completion against cached catalog and enrollment state and
+     * hands it to the write-behind queue. The returned timestamp is the queued
+     * one; if the subtopic was already complete the stored row keeps its
+     * original time.
+     */
+    private SubtopicCompletionResponse queueSubtopicComplete(Long userId, String subtopicId) {
+        SubtopicRef subtopic = getSubtopicRef(subtopicId);
+        if (subtopic == null) {
+            throw new ResourceNotFoundException("Subtopic", "id", subtopicId);
+        }
+        if (!enrollmentService.isUserEnrolledInCourse(userId, subtopic.courseId())) {
+            throw new NotEnrolledException("You must be enrolled in this course to mark subtopics as complete");
+        }
 
-        SubtopicProgress savedProgress = progressRepository.save(progress);
-        
-        log.info("User {} successfully marked subtopic {} as complete", userId, subtopicId);
+        SubtopicProgressRepositoryCustom.NewCompletion queued = writeBehind.submit(
+                new SubtopicProgressRepositoryCustom.NewCompletion(userId, subtopicId, subtopic.courseId(), Instant.now()));
+        log.debug("Queued completion of subtopic {} for user {}", subtopicId, userId);
 
         return SubtopicCompletionResponse.builder()
                 .subtopicId(subtopicId)
-                .completed(savedProgress.getCompleted())
-                .completedAt(savedProgress.getCompletedAt())
+                .completed(true)
+                .completedAt(queued.completedAt())
                 .build();
     }
 
+    /**
+     * Marks many subtopics complete at once: one lookup resolves every subtopic's
+     * course, enrollment is checked once per course against the membership cache,
+     * and all new progress rows are written in a single statement. Each id gets
+     * its own result; one bad id does not fail the rest.
+     */
+    @Transactional
+    public BatchCompletionResponse markSubtopicsComplete(Long userId, List<String> subtopicIds) {
+        Set<String> requestedIds = new LinkedHashSet<>(subtopicIds);
+        log.info("User {} marking {} subtopics as complete", userId, requestedIds.size());
+
+        Map<String, String> courseBySubtopic = new HashMap<>();
+        for (SubtopicRepository.SubtopicCourse row : subtopicRepository.findCourseIdsBySubtopicIds(requestedIds)) {
+            courseBySubtopic.put(row.getSubtopicId(), row.getCourseId());
+        }
+
+        Set<String> enrolledCourseIds = new HashSet<>(courseBySubtopic.values());
+        enrolledCourseIds.removeIf(courseId -> !enrollmentService.isUserEnrolledInCourse(userId, courseId));
+
+        Map<String, String> allowed = new LinkedHashMap<>();
+        for (String subtopicId : requestedIds) {
+            String courseId = courseBySubtopic.get(subtopicId);
+            if (courseId != null && enrolledCourseIds.contains(courseId)) {
+                allowed.put(subtopicId, courseId);
+            }
+        }
+
+        Instant completedAt = Instant.now();
+        List<SubtopicProgressRepositoryCustom.NewCompletion> completions = new ArrayList<>(allowed.size());
+        allowed.forEach((subtopicId, courseId) -> completions.add(
+                new SubtopicProgressRepositoryCustom.NewCompletion(userId, subtopicId, courseId, completedAt)));
+
+        boolean[] insertedFlags = progressRepository.insertCompletions(completions);
+        Set<String> inserted = new HashSet<>();
+        for (int i = 0; i < insertedFlags.length; i++) {
+            if (insertedFlags[i]) {
+                inserted.add(completions.get(i).subtopicId());
+            }
+        }
+
+        // Timestamps of subtopics that were already complete
+        Map<String, Instant> existingCompletedAt = new HashMap<>();
+        if (inserted.size() < allowed.size()) {
+            List<String> existingIds = allowed.keySet().stream()
+                    .filter(id -> !inserted.contains(id))
+                    .collect(Collectors.toList());
+            for (SubtopicProgress progress : progressRepository.findByUserIdAndSubtopicIdIn(userId, existingIds)) {
+                existingCompletedAt.put(progress.getSubtopic().getId(), progress.getCompletedAt());
+            }
+        }
+
+        List<BatchCompletionItemDto> results = new ArrayList<>(requestedIds.size());
+        for (String subtopicId : requestedIds) {
+            BatchCompletionItemDto.BatchCompletionItemDtoBuilder item = BatchCompletionItemDto.builder()
+                    .subtopicId(subtopicId);
+
+            if (!courseBySubtopic.containsKey(subtopicId)) {
+                item.status("not_found").completed(false);
+            } else if (!allowed.containsKey(subtopicId)) {
+                item.status("not_enrolled").completed(false);
+            } else if (inserted.contains(subtopicId)) {
+                item.status("completed").completed(true).completedAt(completedAt);
+            } else {
+                item.status("already_completed").completed(true).completedAt(existingCompletedAt.get(subtopicId));
+            }
+            results.add(item.build());
+        }
+
+        log.info("User {} completed {} new subtopics ({} requested)", userId, inserted.size(), requestedIds.size());
+
+        return BatchCompletionResponse.builder()
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Timed as {@code progress.get}
+     */
     @Transactional(readOnly = true)
     public ProgressResponse getProgress(Long userId, Long enrollmentId) {
+        return meterRegistry.timer("progress.get").record(() -> doGetProgress(userId, enrollmentId));
+    }
+
+    private ProgressResponse doGetProgress(Long userId, Long enrollmentId) {
         log.debug("Fetching progress for user {} enrollment {}", userId, enrollmentId);
 
+        // Taken before reading the database: a completion committed in between then
+        // shows up in both and is de-duplicated, rather than in neither
+        List<SubtopicProgressRepositoryCustom.NewCompletion> pendingCompletions = writeBehind.pendingFor(userId);
+
         // Get enrollment and verify it belongs to the user
         Enrollment enrollment = enrollmentRepository.findByIdAndUserIdWithCourse(enrollmentId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment", "id", enrollmentId));
@@ -97,22 +211,17 @@ public class ProgressService {
         String courseId = enrollment.getCourse().getId();
         String courseTitle = enrollment.getCourse().getTitle();
 
-        // Get total subtopics in course
-        int totalSubtopics = subtopicRepository.countByCourseId(courseId);
-
-        // Get completed subtopics count
-        int completedSubtopics = progressRepository.countCompletedByUserIdAndCourseId(userId, courseId);
+        // Get total subtopics in course (cached per course)
+        int totalSubtopics = getTotalSubtopics(courseId);
 
-        // Calculate percentage
-        double completionPercentage = 0.0;
-        if (totalSubtopics > 0) {
-            completionPercentage = BigDecimal.valueOf(completedSubtopics)
-                    .divide(BigDecimal.valueOf(totalSubtopics), 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100))
-                    .setScale(2, RoundingMode.HALF_UP)
-                    .doubleValue();
+        // Completed count is maintained on the enrollment; only legacy rows need the join
+        Integer completedSubtopics = enrollment.getCompletedSubtopics();
+        if (completedSubtopics == null) {
+            completedSubtopics = progressRepository.countCompletedByUserIdAndCourseId(userId, courseId);
         }
 
+        double completionPercentage = calculateCompletionPercentage(completedSubtopics, totalSubtopics);
+
         // Get completed items with details
         List<SubtopicProgress> completedProgressList = 
                 progressRepository.findCompletedByUserIdAndCourseId(userId, courseId);
@@ -123,7 +232,35 @@ public class ProgressService {
                         .subtopicTitle(p.getSubtopic().getTitle())
                         .completedAt(p.getCompletedAt())
                         .build())
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // The user's own completions still waiting in the write-behind queue
+        Instant lastActivityAt = enrollment.getLastActivityAt();
+        if (!pendingCompletions.isEmpty()) {
+            Set<String> storedIds = completedItems.stream()
+                    .map(CompletedItemDto::getSubtopicId)
+                    .collect(Collectors.toSet());
+            boolean merged = false;
+            for (SubtopicProgressRepositoryCustom.NewCompletion pendingCompletion : pendingCompletions) {
+                if (pendingCompletion.courseId().equals(courseId) && storedIds.add(pendingCompletion.subtopicId())) {
+                    SubtopicRef subtopic = getSubtopicRef(pendingCompletion.subtopicId());
+                    completedItems.add(CompletedItemDto.builder()
+                            .subtopicId(pendingCompletion.subtopicId())
+                            .subtopicTitle(subtopic != null ? subtopic.title() : null)
+                            .completedAt(pendingCompletion.completedAt())
+                            .build());
+                    if (lastActivityAt == null || pendingCompletion.completedAt().isAfter(lastActivityAt)) {
+                        lastActivityAt = pendingCompletion.completedAt();
+                    }
+                    merged = true;
+                }
+            }
+            if (merged) {
+                // The counter may or may not include rows committed mid-read; the merged list is exact
+                completedSubtopics = completedItems.size();
+                completionPercentage = calculateCompletionPercentage(completedSubtopics, totalSubtopics);
+            }
+        }
 
         return ProgressResponse.builder()
                 .enrollmentId(enrollmentId)
@@ -132,7 +269,54 @@ public class ProgressService {
                 .totalSubtopics(totalSubtopics)
                 .completedSubtopics(completedSubtopics)
                 .completionPercentage(completionPercentage)
+                .lastActivityAt(lastActivityAt)
                 .completedItems(completedItems)
                 .build();
     }
+
+    private int getTotalSubtopics(String courseId) {
+        Integer total = totalSubtopicsByCourse.get(courseId);
+        if (total == null) {
+            total = subtopicRepository.countByCourseId(courseId);
+            totalSubtopicsByCourse.put(courseId, total);
+        }
+        return total;
+    }
+
+    private SubtopicRef getSubtopicRef(String subtopicId) {
+        SubtopicRef ref = subtopicRefs.get(subtopicId);
+        if (ref == null) {
+            List<SubtopicRepository.SubtopicCourse> rows = subtopicRepository.findCourseIdsBySubtopicIds(Set.of(subtopicId));
+            if (rows.isEmpty()) {
+                return null;
+            }
+            ref = new SubtopicRef(rows.get(0).getCourseId(), rows.get(0).getSubtopicTitle());
+            subtopicRefs.put(subtopicId, ref);
+        }
+        return ref;
+    }
+
+    /**
+     * Percentage rounded to two decimals
+     */
+    private static double calculateCompletionPercentage(int completedSubtopics, int totalSubtopics) {
+        if (totalSubtopics <= 0) {
+            return 0.0;
+        }
+        return Math.round(completedSubtopics * 10000.0 / totalSubtopics) / 100.0;
+    }
+
+    /**
+     * Nothing was recorded - work out whether the subtopic is missing or the user isn't enrolled.
+     * Only runs on the failure path.
+     */
+    private RuntimeException completionRejected(String subtopicId) {
+        if (!subtopicRepository.existsById(subtopicId)) {
+            return new ResourceNotFoundException("Subtopic", "id", subtopicId);
+        }
+        return new NotEnrolledException("You must be enrolled in this course to mark subtopics as complete");
+    }
+
+    private record SubtopicRef(String courseId, String title) {
+    }
 }
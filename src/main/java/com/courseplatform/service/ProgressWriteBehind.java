@@ -0,0 +1,225 @@
+package com.courseplatform.service;
+
+import com.courseplatform.exception.ServiceUnavailableException;
+import com.courseplatform.repository.SubtopicProgressRepository;
+import com.courseplatform.repository.SubtopicProgressRepositoryCustom.NewCompletion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional write-behind for subtopic completions.
+ * <p>
+ * Validated completions are put on a bounded queue and written by a single
+ * background thread in batched inserts, so a burst of completions costs a
+ * handful of connections instead of one per request. Until a completion has
+ * been committed it stays in a per-user pending map: a repeat of the same
+ * completion is coalesced onto the pending one, and progress reads merge the
+ * user's pending completions in. When the queue is full, callers get a
+ * {@link ServiceUnavailableException} rather than an unbounded backlog.
+ * Stopping the context rejects further completions and drains the queue
+ * before the data source goes away.
+ */
+@Slf4j
+@Component
+public class ProgressWriteBehind implements SmartLifecycle {
+
+    private final SubtopicProgressRepository progressRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+
+    private final BlockingQueue<NewCompletion> queue;
+
+    /**
+     * userId -> subtopicId -> completion queued or being written
+     */
+    private final Map<Long, Map<String, NewCompletion>> pending = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ProgressWriteBehind(SubtopicProgressRepository progressRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${progress.write-behind.enabled:false}") boolean enabled,
+                               @Value("${progress.write-behind.queue-capacity:10000}") int queueCapacity,
+                               @Value("${progress.write-behind.batch-size:500}") int batchSize,
+                               @Value("${progress.write-behind.flush-interval-ms:50}") long flushIntervalMs,
+                               @Value("${progress.write-behind.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.progressRepository = progressRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a completion that has already been validated.
+     *
+     * @return the completion that will be written - an earlier pending one for
+     *         the same user and subtopic if there is one
+     * @throws ServiceUnavailableException if the queue is full or shutting down
+     */
+    public NewCompletion submit(NewCompletion completion) {
+        // Held while queueing, so stop() cannot start draining between the check and the offer
+        acceptLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new ServiceUnavailableException("Progress updates are not being accepted right now", 1);
+            }
+            return enqueue(completion);
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    private NewCompletion enqueue(NewCompletion completion) {
+        NewCompletion[] existing = new NewCompletion[1];
+        pending.compute(completion.userId(), (userId, byUser) -> {
+            Map<String, NewCompletion> map = byUser != null ? byUser : new ConcurrentHashMap<>();
+            existing[0] = map.putIfAbsent(completion.subtopicId(), completion);
+            return map;
+        });
+        if (existing[0] != null) {
+            return existing[0];
+        }
+
+        if (!queue.offer(completion)) {
+            removePending(completion);
+            throw new ServiceUnavailableException("Too many progress updates in flight, please retry shortly", 1);
+        }
+        return completion;
+    }
+
+    /**
+     * Completions for the user that may not be visible in the database yet
+     */
+    public List<NewCompletion> pendingFor(Long userId) {
+        Map<String, NewCompletion> byUser = pending.get(userId);
+        return byUser != null ? new ArrayList<>(byUser.values()) : List.of();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "progress-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Progress write-behind started (batch size {}, flush interval {} ms)", batchSize, flushIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        // Nothing is enqueued from here on; the writer keeps going until the queue is empty
+        acceptLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.error("Progress write-behind did not drain within {} ms; {} completions not written",
+                    shutdownTimeoutMs, queue.size());
+        } else {
+            log.info("Progress write-behind drained and stopped");
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server (whose lifecycles use {@code DEFAULT_PHASE - 1024}
+     * and {@code - 2048}), so requests have finished before draining starts
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<NewCompletion> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                NewCompletion first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Progress write-behind interrupted; {} completions not written", queue.size());
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<NewCompletion> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> progressRepository.insertCompletions(batch));
+            log.debug("Wrote {} queued completions", batch.size());
+        } catch (RuntimeException e) {
+            // Isolate the bad row instead of losing the whole batch
+            log.warn("Writing {} queued completions failed, retrying one by one", batch.size(), e);
+            for (NewCompletion completion : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(
+                            status -> progressRepository.insertCompletions(List.of(completion)));
+                } catch (RuntimeException ex) {
+                    log.error("Dropping completion of subtopic {} for user {}",
+                            completion.subtopicId(), completion.userId(), ex);
+                }
+            }
+        } finally {
+            // Only now is the row visible to readers, so it can leave the pending map
+            batch.forEach(this::removePending);
+        }
+    }
+
+    private void removePending(NewCompletion completion) {
+        pending.computeIfPresent(completion.userId(), (userId, byUser) -> {
+            byUser.remove(completion.subtopicId(), completion);
+            return byUser.isEmpty() ? null : byUser;
+        });
+    }
+}
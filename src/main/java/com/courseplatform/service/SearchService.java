@@ -3,29 +3,81 @@ package com.courseplatform.service;
 import com.courseplatform.dto.response.SearchMatchDto;
 import com.courseplatform.dto.response.SearchResponse;
 import com.courseplatform.dto.response.SearchResultDto;
-import com.courseplatform.entity.Course;
-import com.courseplatform.entity.Subtopic;
-import com.courseplatform.entity.Topic;
-import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.search.FoldedText;
+import com.courseplatform.search.IndexedField;
+import com.courseplatform.search.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SearchService {
 
-    private final CourseRepository courseRepository;
+    private final SearchIndex searchIndex;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> searchTimers = new ConcurrentHashMap<>();
 
     private static final int SNIPPET_LENGTH = 100;
 
-    @Transactional(readOnly = true)
-    public SearchResponse search(String query) {
-        log.debug("Searching for: {}", query);
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_MATCHES_PER_RESULT = 10;
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * Results are ranked by score (descending), ties broken by course id
+     */
+    private static final Comparator<CourseHits> RANKING = Comparator
+            .comparingDouble(CourseHits::getScore).reversed()
+            .thenComparing(CourseHits::getCourseId);
+
+    /**
+     * Timed as {@code search.requests}, tagged with bucketed result count and
+     * query length; failed searches (bad limit or cursor) are not recorded
+     */
+    public SearchResponse search(String query, int limit, String cursor) {
+        long start = System.nanoTime();
+        SearchResponse response = doSearch(query, limit, cursor);
+
+        String searchTerm = query != null ? query.trim() : "";
+        searchTimer(bucket(response.getResults().size(), 1, 10),
+                // Terms shorter than GRAM_LENGTH characters scan every field, longer ones intersect trigrams
+                bucket(searchTerm.length(), 1, SearchIndex.GRAM_LENGTH, 11))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    /**
+     * The {@code search.requests} timer for the tag values, registered on
+     * first use; the buckets keep the number of combinations small
+     */
+    private Timer searchTimer(String results, String queryLength) {
+        return searchTimers.computeIfAbsent(results + " " + queryLength, key -> Timer.builder("search.requests")
+                .description("Course searches")
+                .tag("results", results)
+                .tag("query.length", queryLength)
+                .register(meterRegistry));
+    }
+
+    private SearchResponse doSearch(String query, int limit, String cursor) {
+        log.debug("Searching for: {} (limit {}, cursor {})", query, limit, cursor);
+
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        CourseHits after = cursor != null ? decodeCursor(cursor) : null;
 
         if (query == null || query.trim().isEmpty()) {
             return SearchResponse.builder()
@@ -34,114 +86,172 @@ public class SearchService {
                     .build();
         }
 
-        String searchTerm = query.toLowerCase().trim();
-        List<Course> allCourses = courseRepository.findAll();
+        String searchTerm = SearchIndex.fold(query.trim());
 
-        // Map to collect results by course
-        Map<String, SearchResultDto> resultMap = new LinkedHashMap<>();
+        // Collect verified matches by course
+        Map<String, CourseHits> hitsByCourse = new HashMap<>();
 
-        for (Course course : allCourses) {
-            List<SearchMatchDto> matches = new ArrayList<>();
-
-            // Search in course title
-            if (containsIgnoreCase(course.getTitle(), searchTerm)) {
-                matches.add(SearchMatchDto.builder()
-                        .type("course")
-                        .snippet(course.getTitle())
-                        .build());
+        for (IndexedField field : searchIndex.candidates(searchTerm)) {
+            // The index only narrows down candidates - confirm the actual substring match
+            int matchIndex = field.text().folded().indexOf(searchTerm);
+            if (matchIndex < 0) {
+                continue;
             }
+            int occurrences = countOccurrences(field.text().folded(), searchTerm, matchIndex);
 
-            // Search in course description
-            if (containsIgnoreCase(course.getDescription(), searchTerm)) {
-                matches.add(SearchMatchDto.builder()
-                        .type("course")
-                        .snippet(createSnippet(course.getDescription(), searchTerm))
-                        .build());
-            }
+            hitsByCourse.computeIfAbsent(field.courseId(), id -> new CourseHits(id, field.courseTitle()))
+                    .add(field, matchIndex, occurrences);
+        }
 
-            // Search in topics
-            for (Topic topic : course.getTopics()) {
-                // Search in topic title
-                if (containsIgnoreCase(topic.getTitle(), searchTerm)) {
-                    matches.add(SearchMatchDto.builder()
-                            .type("topic")
-                            .topicTitle(topic.getTitle())
-                            .snippet(topic.getTitle())
-                            .build());
-                }
-
-                // Search in subtopics
-                for (Subtopic subtopic : topic.getSubtopics()) {
-                    // Search in subtopic title
-                    if (containsIgnoreCase(subtopic.getTitle(), searchTerm)) {
-                        matches.add(SearchMatchDto.builder()
-                                .type("subtopic")
-                                .topicTitle(topic.getTitle())
-                                .subtopicId(subtopic.getId())
-                                .subtopicTitle(subtopic.getTitle())
-                                .snippet(subtopic.getTitle())
-                                .build());
-                    }
-
-                    // Search in subtopic content
-                    if (containsIgnoreCase(subtopic.getContent(), searchTerm)) {
-                        matches.add(SearchMatchDto.builder()
-                                .type("content")
-                                .topicTitle(topic.getTitle())
-                                .subtopicId(subtopic.getId())
-                                .subtopicTitle(subtopic.getTitle())
-                                .snippet(createSnippet(subtopic.getContent(), searchTerm))
-                                .build());
-                    }
-                }
-            }
+        // Score every matching course, keeping only the best limit + 1 after the cursor
+        double idf = inverseDocumentFrequency(hitsByCourse.size());
+        PriorityQueue<CourseHits> topK = new PriorityQueue<>(limit + 1, RANKING.reversed());
 
-            // If we found matches, add to results
-            if (!matches.isEmpty()) {
-                resultMap.put(course.getId(), SearchResultDto.builder()
-                        .courseId(course.getId())
-                        .courseTitle(course.getTitle())
-                        .matches(matches)
-                        .build());
+        for (CourseHits hits : hitsByCourse.values()) {
+            hits.score(idf);
+            if (after != null && RANKING.compare(hits, after) <= 0) {
+                continue;
+            }
+            topK.offer(hits);
+            if (topK.size() > limit + 1) {
+                topK.poll();
             }
         }
 
+        List<CourseHits> page = new ArrayList<>(topK);
+        page.sort(RANKING);
+
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page.remove(limit);
+            nextCursor = encodeCursor(page.get(limit - 1));
+        }
+
+        List<SearchResultDto> results = new ArrayList<>(page.size());
+        for (CourseHits hits : page) {
+            results.add(mapToSearchResult(hits, searchTerm.length()));
+        }
+
         return SearchResponse.builder()
                 .query(query)
-                .results(new ArrayList<>(resultMap.values()))
+                .results(results)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private SearchResultDto mapToSearchResult(CourseHits hits, int matchLength) {
+        // Best matches first, capped so broad queries cannot return whole courses
+        List<FieldHit> best = hits.getFieldHits();
+        best.sort(Comparator.comparingDouble(FieldHit::score).reversed()
+                .thenComparingInt(hit -> hit.field().ordinal()));
+
+        List<SearchMatchDto> matches = new ArrayList<>();
+        for (FieldHit hit : best.subList(0, Math.min(best.size(), MAX_MATCHES_PER_RESULT))) {
+            matches.add(mapToSearchMatch(hit, matchLength));
+        }
+
+        return SearchResultDto.builder()
+                .courseId(hits.getCourseId())
+                .courseTitle(hits.getCourseTitle())
+                .score(hits.getScore())
+                .totalMatches(best.size())
+                .matches(matches)
+                .build();
+    }
+
+    private SearchMatchDto mapToSearchMatch(FieldHit hit, int matchLength) {
+        IndexedField field = hit.field();
+
+        // Titles are returned whole, long text fields as a snippet around the match
+        String snippet = switch (field.type()) {
+            case COURSE_DESCRIPTION, SUBTOPIC_CONTENT -> createSnippet(field.text(), hit.matchIndex(), matchLength);
+            default -> field.text().original();
+        };
+
+        return SearchMatchDto.builder()
+                .type(field.type().matchType())
+                .topicTitle(field.topicTitle())
+                .subtopicId(field.subtopicId())
+                .subtopicTitle(field.subtopicTitle())
+                .snippet(snippet)
                 .build();
     }
 
     /**
-     * Case-insensitive contains check (equivalent to ILIKE %query%)
+     * BM25 idf, treating each course as a document
      */
-    private boolean containsIgnoreCase(String text, String searchTerm) {
-        if (text == null)
-            return false;
-        return text.toLowerCase().contains(searchTerm);
+    private double inverseDocumentFrequency(int matchingCourses) {
+        int courseCount = Math.max(searchIndex.courseCount(), matchingCourses);
+        return Math.log(1 + (courseCount - matchingCourses + 0.5) / (matchingCourses + 0.5));
     }
 
     /**
-     * Creates a snippet around the matched text
+     * Low-cardinality tag value for a count, e.g. {@code "0"}, {@code "1-3"},
+     * {@code "4-10"} or {@code "11+"} for bounds {@code 1, 4, 11}
      */
-    private String createSnippet(String text, String searchTerm) {
-        if (text == null)
-            return "";
+    private static String bucket(int value, int... bounds) {
+        if (value < 1) {
+            return "0";
+        }
+        for (int i = 1; i < bounds.length; i++) {
+            if (value < bounds[i]) {
+                return bounds[i - 1] + "-" + (bounds[i] - 1);
+            }
+        }
+        return bounds[bounds.length - 1] + "+";
+    }
 
-        String lowerText = text.toLowerCase();
-        int index = lowerText.indexOf(searchTerm);
+    /**
+     * BM25 term-frequency component, normalised by field length and boosted by field type
+     */
+    private static double fieldScore(IndexedField field, int occurrences, double idf) {
+        double norm = K1 * (1 - B + B * field.lengthRatio());
+        return field.type().weight() * idf * occurrences * (K1 + 1) / (occurrences + norm);
+    }
 
-        if (index == -1) {
-            // Return the beginning of the text if term not found (shouldn't happen)
-            return text.substring(0, Math.min(text.length(), SNIPPET_LENGTH)) +
-                    (text.length() > SNIPPET_LENGTH ? "..." : "");
+    /**
+     * Cursor is the score and id of the last course on the previous page
+     */
+    private static String encodeCursor(CourseHits last) {
+        String raw = Long.toHexString(Double.doubleToLongBits(last.getScore())) + ":" + last.getCourseId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CourseHits decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            CourseHits after = new CourseHits(raw.substring(separator + 1), null);
+            after.score = Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, separator), 16));
+            return after;
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+    }
+
+    /**
+     * Counts non-overlapping occurrences in already folded text, starting at the first match.
+     * Works on the index's folded text, so no per-query lower-casing is needed.
+     */
+    private int countOccurrences(String foldedText, String searchTerm, int firstIndex) {
+        int count = 0;
+        for (int index = firstIndex; index >= 0;
+             index = foldedText.indexOf(searchTerm, index + searchTerm.length())) {
+            count++;
         }
+        return count;
+    }
 
+    /**
+     * Creates a snippet around the matched text, cut from the original text
+     * using the match offset found while verifying the candidate
+     */
+    private String createSnippet(FoldedText text, int matchIndex, int matchLength) {
         // Calculate start and end positions for the snippet
-        int start = Math.max(0, index - SNIPPET_LENGTH / 2);
-        int end = Math.min(text.length(), index + searchTerm.length() + SNIPPET_LENGTH / 2);
+        int start = Math.max(0, matchIndex - SNIPPET_LENGTH / 2);
+        int end = Math.min(text.length(), matchIndex + matchLength + SNIPPET_LENGTH / 2);
 
-        String snippet = text.substring(start, end);
+        String snippet = text.original(start, end);
 
         // Add ellipses if we're not at the boundaries
         String prefix = start > 0 ? "..." : "";
@@ -149,4 +259,36 @@ public class SearchService {
 
         return prefix + snippet.trim() + suffix;
     }
+
+    private record FieldHit(IndexedField field, int matchIndex, int occurrences, double score) {
+    }
+
+    /**
+     * Verified matches of one course, scored once all candidates are known
+     */
+    @Getter
+    private static final class CourseHits {
+        private final String courseId;
+        private final String courseTitle;
+        private final List<FieldHit> fieldHits = new ArrayList<>();
+        private double score;
+
+        CourseHits(String courseId, String courseTitle) {
+            this.courseId = courseId;
+            this.courseTitle = courseTitle;
+        }
+
+        void add(IndexedField field, int matchIndex, int occurrences) {
+            fieldHits.add(new FieldHit(field, matchIndex, occurrences, 0));
+        }
+
+        void score(double idf) {
+            score = 0;
+            fieldHits.replaceAll(hit -> new FieldHit(hit.field(), hit.matchIndex(), hit.occurrences(),
+                    fieldScore(hit.field(), hit.occurrences(), idf)));
+            for (FieldHit hit : fieldHits) {
+                score += hit.score();
+            }
+        }
+    }
 }
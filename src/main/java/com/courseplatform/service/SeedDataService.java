@@ -1,98 +1,130 @@
 package com.courseplatform.service;
 
-import com.courseplatform.dto.seed.SeedCourseDto;
-import com.courseplatform.dto.seed.SeedDataDto;
-import com.courseplatform.dto.seed.SeedSubtopicDto;
-import com.courseplatform.dto.seed.SeedTopicDto;
-import com.courseplatform.entity.Course;
-import com.courseplatform.entity.Subtopic;
-import com.courseplatform.entity.Topic;
+import com.courseplatform.entity.SeedImport;
+import com.courseplatform.event.CourseCatalogChangedEvent;
 import com.courseplatform.repository.CourseRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.courseplatform.repository.SeedImportRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Loads the course catalog at startup. {@code seed.import.mode} controls when:
+ * {@code if-changed} (default) imports the catalog unless the checksum of the
+ * last successful import matches, {@code if-empty} only seeds an empty
+ * database, {@code upsert} re-imports the catalog every start, and
+ * {@code off} skips loading entirely.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SeedDataService implements CommandLineRunner {
 
     private final CourseRepository courseRepository;
-    private final ObjectMapper objectMapper;
+    private final SeedImportRepository seedImportRepository;
+    private final CatalogImporter catalogImporter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationStartup applicationStartup;
+
+    @Value("${seed.import.location:classpath:seed_data/courses.json}")
+    private String seedDataLocation;
 
-    @Value("classpath:seed_data/courses.json")
+    @Value("${seed.import.location:classpath:seed_data/courses.json}")
     private Resource seedDataResource;
 
+    @Value("${seed.import.mode:if-changed}")
+    private String importMode;
+
     @Override
-    @Transactional
     public void run(String... args) throws Exception {
-        // Check if data already exists - PREVENTS DUPLICATION
-        if (courseRepository.count() > 0) {
-            log.info("Seed data already exists. Skipping seed data loading.");
+        if ("off".equals(importMode)) {
+            log.info("Seed data loading disabled.");
             return;
         }
 
-        log.info("Loading seed data from courses.json...");
-
+        StartupStep step = applicationStartup.start("courseplatform.seed.import").tag("mode", importMode);
         try {
-            // Parse JSON file
-            SeedDataDto seedData = objectMapper.readValue(
-                    seedDataResource.getInputStream(),
-                    SeedDataDto.class
-            );
-
-            int totalCourses = 0;
-            int totalTopics = 0;
-            int totalSubtopics = 0;
-
-            // Process each course
-            for (SeedCourseDto courseDto : seedData.getCourses()) {
-                Course course = Course.builder()
-                        .id(courseDto.getId())
-                        .title(courseDto.getTitle())
-                        .description(courseDto.getDescription())
-                        .build();
-
-                int topicIndex = 0;
-                for (SeedTopicDto topicDto : courseDto.getTopics()) {
-                    Topic topic = Topic.builder()
-                            .id(topicDto.getId())
-                            .title(topicDto.getTitle())
-                            .orderIndex(topicIndex++)
-                            .build();
-
-                    int subtopicIndex = 0;
-                    for (SeedSubtopicDto subtopicDto : topicDto.getSubtopics()) {
-                        Subtopic subtopic = Subtopic.builder()
-                                .id(subtopicDto.getId())
-                                .title(subtopicDto.getTitle())
-                                .content(subtopicDto.getContent())
-                                .orderIndex(subtopicIndex++)
-                                .build();
-
-                        topic.addSubtopic(subtopic);
-                        totalSubtopics++;
-                    }
-
-                    course.addTopic(topic);
-                    totalTopics++;
+            String checksum = checksum(seedDataResource);
+
+            if ("if-changed".equals(importMode)) {
+                Optional<SeedImport> previous = seedImportRepository.findById(seedDataLocation);
+                if (previous.isPresent() && previous.get().getChecksum().equals(checksum)) {
+                    log.info("Seed data unchanged since {}. Skipping seed data loading.", previous.get().getImportedAt());
+                    step.tag("outcome", "unchanged");
+                    return;
                 }
+            }
 
-                courseRepository.save(course);
-                totalCourses++;
+            // Check if data already exists - PREVENTS DUPLICATION
+            if ("if-empty".equals(importMode) && courseRepository.count() > 0) {
+                log.info("Seed data already exists. Skipping seed data loading.");
+                step.tag("outcome", "not-empty");
+                return;
             }
 
-            log.info("Seed data loaded successfully: {} courses, {} topics, {} subtopics",
-                    totalCourses, totalTopics, totalSubtopics);
+            log.info("Loading seed data from {} (mode {})...", seedDataResource.getDescription(), importMode);
+            transactionTemplate.executeWithoutResult(status -> importCatalog(checksum));
+            step.tag("outcome", "imported");
 
         } catch (Exception e) {
             log.error("Failed to load seed data: {}", e.getMessage(), e);
             throw e;
+        } finally {
+            step.end();
+        }
+    }
+
+    private void importCatalog(String checksum) {
+        try (InputStream input = seedDataResource.getInputStream()) {
+            CatalogImporter.ImportResult result = catalogImporter.importCatalog(input);
+
+            seedImportRepository.save(SeedImport.builder()
+                    .location(seedDataLocation)
+                    .checksum(checksum)
+                    .importedAt(Instant.now())
+                    .build());
+
+            log.info("Seed data loaded successfully: {} courses, {} topics, {} subtopics",
+                    result.courses(), result.topics(), result.subtopics());
+
+            eventPublisher.publishEvent(new CourseCatalogChangedEvent(result.courses()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * SHA-256 of the catalog file, read in a single streaming pass
+     */
+    private static String checksum(Resource resource) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream input = new DigestInputStream(resource.getInputStream(), digest)) {
+            input.transferTo(OutputStream.nullOutputStream());
         }
+        return HexFormat.of().formatHex(digest.digest());
     }
 }
@@ -0,0 +1,47 @@
+-- Schema as originally created by Hibernate (ddl-auto=update).
+-- Databases that already have these tables are baselined at this version.
+
+CREATE TABLE users (
+    id         BIGSERIAL PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL UNIQUE,
+    password   VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE courses (
+    id          VARCHAR(100) PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT
+);
+
+CREATE TABLE topics (
+    id          VARCHAR(100) PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    order_index INTEGER,
+    course_id   VARCHAR(100) NOT NULL REFERENCES courses (id)
+);
+
+CREATE TABLE subtopics (
+    id          VARCHAR(100) PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    content     TEXT,
+    order_index INTEGER,
+    topic_id    VARCHAR(100) NOT NULL REFERENCES topics (id)
+);
+
+CREATE TABLE enrollments (
+    id          BIGSERIAL PRIMARY KEY,
+    user_id     BIGINT       NOT NULL REFERENCES users (id),
+    course_id   VARCHAR(100) NOT NULL REFERENCES courses (id),
+    enrolled_at TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_enrollment_user_course UNIQUE (user_id, course_id)
+);
+
+CREATE TABLE subtopic_progress (
+    id           BIGSERIAL PRIMARY KEY,
+    user_id      BIGINT       NOT NULL REFERENCES users (id),
+    subtopic_id  VARCHAR(100) NOT NULL REFERENCES subtopics (id),
+    completed    BOOLEAN,
+    completed_at TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_progress_user_subtopic UNIQUE (user_id, subtopic_id)
+);
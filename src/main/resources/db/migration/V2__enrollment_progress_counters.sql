@@ -0,0 +1,16 @@
+-- Per-enrollment progress counters. Written to also apply cleanly to databases
+-- where Hibernate already added the columns.
+
+ALTER TABLE enrollments ADD COLUMN IF NOT EXISTS completed_subtopics INTEGER;
+ALTER TABLE enrollments ADD COLUMN IF NOT EXISTS last_activity_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE enrollments ALTER COLUMN completed_subtopics SET DEFAULT 0;
+
+UPDATE enrollments e
+SET completed_subtopics = (
+    SELECT COUNT(*)
+    FROM subtopic_progress sp
+    JOIN subtopics s ON s.id = sp.subtopic_id
+    JOIN topics t ON t.id = s.topic_id
+    WHERE sp.user_id = e.user_id AND t.course_id = e.course_id AND sp.completed = true
+)
+WHERE e.completed_subtopics IS NULL;
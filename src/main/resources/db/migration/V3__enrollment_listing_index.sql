@@ -0,0 +1,2 @@
+-- Keyset pagination of a user's enrollments, newest first
+CREATE INDEX IF NOT EXISTS idx_enrollment_user_enrolled_at ON enrollments (user_id, enrolled_at, id);
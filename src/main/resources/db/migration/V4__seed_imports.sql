@@ -0,0 +1,7 @@
+-- Checksum of the last catalog file imported from each location, so an
+-- unchanged catalog is skipped at startup with a single lookup
+CREATE TABLE seed_imports (
+    location    VARCHAR(255) PRIMARY KEY,
+    checksum    VARCHAR(64)  NOT NULL,
+    imported_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
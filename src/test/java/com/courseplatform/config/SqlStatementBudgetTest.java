@@ -0,0 +1,244 @@
+package com.courseplatform.config;
+
+import com.courseplatform.event.CourseCatalogChangedEvent;
+import com.courseplatform.security.UserPrincipalCache;
+import com.courseplatform.service.EnrollmentMembershipCache;
+import com.courseplatform.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Each endpoint's SQL statements with every cache cold (a caller's first
+ * request, or the first after the principal cache entry expired), against
+ * the budgets in application.properties. With {@code budget-mode=fail} a
+ * request over its budget throws out of {@code perform}.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "seed.import.mode=upsert",
+        "seed.import.location=classpath:catalog/initial.json",
+        "sql-stats.header=true",
+        "sql-stats.budget-mode=fail"
+})
+class SqlStatementBudgetTest extends PostgresIntegrationTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("statements=(\\d+)");
+    private static final String PASSWORD = "budget-password";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private EnrollmentMembershipCache membershipCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private String email;
+
+    @BeforeEach
+    void newUser() {
+        email = "budget-" + USERS.incrementAndGet() + "-" + System.nanoTime() + "@example.com";
+    }
+
+    @Test
+    void register() throws Exception {
+        assertThat(statements(register(email))).isEqualTo(2);
+    }
+
+    @Test
+    void login() throws Exception {
+        register(email);
+
+        assertThat(statements(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials(email)))
+                .andExpect(status().isOk())
+                .andReturn())).isEqualTo(1);
+    }
+
+    @Test
+    void listCourses() throws Exception {
+        coolCaches();
+
+        assertThat(statements(mockMvc.perform(get("/api/courses"))
+                .andExpect(status().isOk())
+                .andReturn())).isEqualTo(0);
+    }
+
+    @Test
+    void courseDetail() throws Exception {
+        coolCaches();
+
+        assertThat(statements(mockMvc.perform(get("/api/courses/import-mechanics"))
+                .andExpect(status().isOk())
+                .andReturn())).isEqualTo(3);
+    }
+
+    @Test
+    void search() throws Exception {
+        assertThat(statements(mockMvc.perform(get("/api/search").param("q", "velocity"))
+                .andExpect(status().isOk())
+                .andReturn())).isEqualTo(0);
+    }
+
+    @Test
+    void enroll() throws Exception {
+        String token = signUp();
+        coolCaches();
+
+        assertThat(statements(authorized(post("/api/courses/import-mechanics/enroll"), token)
+                .andExpect(status().isCreated())
+                .andReturn())).isEqualTo(5);
+    }
+
+    @Test
+    void listEnrollments() throws Exception {
+        String token = signUp();
+        enroll(token);
+        coolCaches();
+
+        assertThat(statements(authorized(get("/api/enrollments"), token)
+                .andExpect(status().isOk())
+                .andReturn())).isEqualTo(2);
+    }
+
+    @Test
+    void completeSubtopic() throws Exception {
+        String token = signUp();
+        enroll(token);
+        coolCaches();
+
+        assertThat(statements(authorized(post("/api/subtopics/import-velocity/complete"), token)
+                .andExpect(status().isOk())
+                .andReturn())).isEqualTo(2);
+    }
+
+    @Test
+    void completeSubtopicWithoutEnrollment() throws Exception {
+        String token = signUp();
+        coolCaches();
+
+        assertThat(statements(authorized(post("/api/subtopics/import-velocity/complete"), token)
+                .andExpect(status().isForbidden())
+                .andReturn())).isEqualTo(4);
+    }
+
+    @Test
+    void completeSubtopicsInBatch() throws Exception {
+        String token = signUp();
+        enroll(token);
+        authorized(post("/api/subtopics/import-velocity/complete"), token);
+        coolCaches();
+
+        // One new completion and one already complete, so every step runs
+        assertThat(statements(authorized(post("/api/subtopics/complete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"subtopicIds\": [\"import-velocity\", \"import-acceleration\"]}"), token)
+                .andExpect(status().isOk())
+                .andReturn())).isEqualTo(6);
+    }
+
+    @Test
+    void progress() throws Exception {
+        String token = signUp();
+        long enrollmentId = enroll(token);
+        authorized(post("/api/subtopics/import-velocity/complete"), token);
+        coolCaches();
+
+        assertThat(statements(authorized(get("/api/enrollments/" + enrollmentId + "/progress"), token)
+                .andExpect(status().isOk())
+                .andReturn())).isEqualTo(4);
+    }
+
+    /**
+     * Drops everything the application caches between requests: principals,
+     * enrollment memberships, the second-level cache and the catalog caches
+     */
+    private void coolCaches() {
+        // First, since the course list is rebuilt straight away and that warms the second-level cache
+        eventPublisher.publishEvent(new CourseCatalogChangedEvent(1));
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+        principalCache.clear();
+        membershipCache.clear();
+    }
+
+    private String signUp() throws Exception {
+        register(email);
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials(email)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return json(login).path("token").asText();
+    }
+
+    private MvcResult register(String email) throws Exception {
+        return mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials(email)))
+                .andExpect(status().isCreated())
+                .andReturn();
+    }
+
+    private long enroll(String token) throws Exception {
+        return json(authorized(post("/api/courses/import-mechanics/enroll"), token)
+                .andExpect(status().isCreated())
+                .andReturn()).path("enrollmentId").asLong();
+    }
+
+    private ResultActions authorized(MockHttpServletRequestBuilder request, String token) throws Exception {
+        return mockMvc.perform(request.header("Authorization", "Bearer " + token));
+    }
+
+    private String credentials(String email) {
+        return objectMapper.createObjectNode()
+                .put("email", email)
+                .put("password", PASSWORD)
+                .toString();
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static int statements(MvcResult result) {
+        String header = result.getResponse().getHeader(SqlStatisticsFilter.HEADER);
+        assertThat(header).as(SqlStatisticsFilter.HEADER).isNotNull();
+        Matcher matcher = STATEMENTS.matcher(header);
+        assertThat(matcher.find()).as(header).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+}
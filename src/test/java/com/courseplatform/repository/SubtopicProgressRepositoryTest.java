@@ -0,0 +1,74 @@
+package com.courseplatform.repository;
+
+import com.courseplatform.repository.SubtopicProgressRepositoryCustom.NewCompletion;
+import com.courseplatform.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubtopicProgressRepositoryTest extends PostgresIntegrationTest {
+
+    private static final String COURSE_ID = "batch-course";
+
+    @Autowired
+    private SubtopicProgressRepository progressRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO courses (id, title) VALUES (?, 'Batch') ON CONFLICT DO NOTHING", COURSE_ID);
+        jdbcTemplate.update("INSERT INTO topics (id, title, order_index, course_id) VALUES ('batch-topic', 'Batch', 0, ?) "
+                + "ON CONFLICT DO NOTHING", COURSE_ID);
+        for (String subtopicId : List.of("batch-first", "batch-second", "batch-done")) {
+            jdbcTemplate.update("INSERT INTO subtopics (id, title, content, order_index, topic_id) "
+                    + "VALUES (?, 'Batch', '', 0, 'batch-topic') ON CONFLICT DO NOTHING", subtopicId);
+        }
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (email, password) VALUES (?, 'x') RETURNING id",
+                Long.class, "batch-" + System.nanoTime() + "@example.com");
+        jdbcTemplate.update("INSERT INTO enrollments (user_id, course_id, enrolled_at) VALUES (?, ?, now())",
+                userId, COURSE_ID);
+    }
+
+    @Test
+    void onlyNewRowsAreReportedAndCounted() {
+        Instant completedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        insert(List.of(completion("batch-done", completedAt)));
+
+        boolean[] inserted = insert(List.of(
+                completion("batch-first", completedAt),
+                completion("batch-done", completedAt),
+                completion("batch-second", completedAt),
+                completion("batch-first", completedAt)));
+
+        assertThat(inserted).containsExactly(true, false, true, false);
+        assertThat(jdbcTemplate.queryForObject("SELECT completed_subtopics FROM enrollments WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT completed_at FROM subtopic_progress "
+                + "WHERE user_id = ? AND subtopic_id = 'batch-second'", Timestamp.class, userId).toInstant())
+                .isEqualTo(completedAt);
+    }
+
+    private boolean[] insert(List<NewCompletion> completions) {
+        return transactionTemplate.execute(status -> progressRepository.insertCompletions(completions));
+    }
+
+    private NewCompletion completion(String subtopicId, Instant completedAt) {
+        return new NewCompletion(userId, subtopicId, COURSE_ID, completedAt);
+    }
+}
@@ -0,0 +1,117 @@
+package com.courseplatform.service;
+
+import com.courseplatform.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Imports the catalogs under {@code src/test/resources/catalog}, whose ids all
+ * start with {@code import-}.
+ */
+class CatalogImporterTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CatalogImporter catalogImporter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void deleteImportedRows() {
+        jdbcTemplate.update("DELETE FROM subtopics WHERE id LIKE 'import-%'");
+        jdbcTemplate.update("DELETE FROM topics WHERE id LIKE 'import-%'");
+        jdbcTemplate.update("DELETE FROM courses WHERE id LIKE 'import-%'");
+    }
+
+    @Test
+    void reimportingAnUnchangedCatalogChangesNothing() {
+        CatalogImporter.ImportResult first = importFixture("initial.json");
+        CatalogImporter.ImportResult second = importFixture("initial.json");
+
+        assertThat(first.changedRows()).isEqualTo(6);
+        assertThat(second.changedRows()).isZero();
+        assertThat(second.courses()).isEqualTo(1);
+        assertThat(second.topics()).isEqualTo(2);
+        assertThat(second.subtopics()).isEqualTo(3);
+    }
+
+    @Test
+    void reimportUpdatesChangedAndReorderedRows() {
+        importFixture("initial.json");
+
+        CatalogImporter.ImportResult result = importFixture("updated.json");
+
+        // The course title, both topics' order and both kinematics subtopics' order (one also its content)
+        assertThat(result.changedRows()).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForObject("SELECT title FROM courses WHERE id = 'import-mechanics'",
+                String.class)).isEqualTo("Classical Mechanics");
+        assertThat(orderedIds("SELECT id FROM topics WHERE course_id = 'import-mechanics' ORDER BY order_index"))
+                .containsExactly("import-dynamics", "import-kinematics");
+        assertThat(orderedIds("SELECT id FROM subtopics WHERE topic_id = 'import-kinematics' ORDER BY order_index"))
+                .containsExactly("import-acceleration", "import-velocity");
+        assertThat(jdbcTemplate.queryForObject("SELECT content FROM subtopics WHERE id = 'import-velocity'",
+                String.class)).isEqualTo("# Velocity, revised");
+    }
+
+    @Test
+    void childrenThatAreNotListsAreSkipped() {
+        CatalogImporter.ImportResult result = importFixture("malformed-children.json");
+
+        assertThat(result.courses()).isEqualTo(2);
+        assertThat(orderedIds("SELECT id FROM courses WHERE id LIKE 'import-%' ORDER BY id"))
+                .containsExactly("import-next", "import-odd");
+        assertThat(orderedIds("SELECT id FROM topics WHERE id LIKE 'import-%' ORDER BY order_index"))
+                .containsExactly("import-next-first", "import-next-second");
+        assertThat(jdbcTemplate.queryForList("SELECT id, topic_id FROM subtopics WHERE id LIKE 'import-%'"))
+                .containsExactly(Map.of("id", "import-next-only", "topic_id", "import-next-second"));
+    }
+
+    @Test
+    void parentWithoutAnIdIsRejected() {
+        assertThatThrownBy(() -> importFixture("missing-id.json"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("topic without an id");
+
+        assertThat(orderedIds("SELECT id FROM courses WHERE id LIKE 'import-%'")).isEmpty();
+    }
+
+    @Test
+    void truncatedFileFailsAndWritesNothing() {
+        assertThatThrownBy(() -> importFixture("truncated.json"))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasCauseInstanceOf(JsonProcessingException.class);
+
+        assertThat(orderedIds("SELECT id FROM courses WHERE id LIKE 'import-%'")).isEmpty();
+    }
+
+    private CatalogImporter.ImportResult importFixture(String name) {
+        return transactionTemplate.execute(status -> {
+            try (InputStream input = new ClassPathResource("catalog/" + name).getInputStream()) {
+                return catalogImporter.importCatalog(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private List<String> orderedIds(String sql) {
+        return jdbcTemplate.queryForList(sql, String.class);
+    }
+}
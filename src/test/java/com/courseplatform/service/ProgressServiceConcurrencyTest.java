@@ -0,0 +1,111 @@
+package com.courseplatform.service;
+
+import com.courseplatform.dto.response.SubtopicCompletionResponse;
+import com.courseplatform.repository.SubtopicProgressRepository;
+import com.courseplatform.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressServiceConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final String COURSE_ID = "race-course";
+    private static final String SUBTOPIC_ID = "race-subtopic";
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private SubtopicProgressRepository progressRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO courses (id, title) VALUES (?, 'Race') ON CONFLICT DO NOTHING", COURSE_ID);
+        jdbcTemplate.update("INSERT INTO topics (id, title, order_index, course_id) VALUES ('race-topic', 'Race', 0, ?) "
+                + "ON CONFLICT DO NOTHING", COURSE_ID);
+        jdbcTemplate.update("INSERT INTO subtopics (id, title, content, order_index, topic_id) "
+                + "VALUES (?, 'Race', '', 0, 'race-topic') ON CONFLICT DO NOTHING", SUBTOPIC_ID);
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (email, password) VALUES (?, 'x') RETURNING id",
+                Long.class, "race-" + System.nanoTime() + "@example.com");
+        jdbcTemplate.update("INSERT INTO enrollments (user_id, course_id, enrolled_at) VALUES (?, ?, now())",
+                userId, COURSE_ID);
+    }
+
+    @Test
+    void completionThatLosesARaceReturnsTheExistingRow() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The winner inserts and holds its transaction open...
+            Future<?> winner = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                progressRepository.upsertCompletion(userId, SUBTOPIC_ID, Instant.now());
+                inserted.countDown();
+                await(commit);
+            }));
+            assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // ...so the loser's ON CONFLICT waits on the winner's row lock
+            Future<SubtopicCompletionResponse> loser = executor.submit(() ->
+                    progressService.markSubtopicComplete(userId, SUBTOPIC_ID));
+            awaitLockWait();
+            commit.countDown();
+            winner.get(10, TimeUnit.SECONDS);
+
+            SubtopicCompletionResponse response = loser.get(10, TimeUnit.SECONDS);
+            assertThat(response.getCompleted()).isTrue();
+            assertThat(response.getCompletedAt()).isNotNull();
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT completed_subtopics FROM enrollments WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedCompletionIsIdempotent() {
+        Instant first = progressService.markSubtopicComplete(userId, SUBTOPIC_ID).getCompletedAt();
+        SubtopicCompletionResponse again = progressService.markSubtopicComplete(userId, SUBTOPIC_ID);
+
+        assertThat(again.getCompletedAt()).isEqualTo(first);
+        assertThat(jdbcTemplate.queryForObject("SELECT completed_subtopics FROM enrollments WHERE user_id = ?",
+                Integer.class, userId)).isEqualTo(1);
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject("SELECT count(*) FROM pg_locks WHERE NOT granted", Integer.class) == 0) {
+            assertThat(System.nanoTime()).as("second completion waiting on the first").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
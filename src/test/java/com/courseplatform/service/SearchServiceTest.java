@@ -0,0 +1,75 @@
+package com.courseplatform.service;
+
+import com.courseplatform.dto.response.SearchMatchDto;
+import com.courseplatform.dto.response.SearchResponse;
+import com.courseplatform.dto.response.SearchResultDto;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.search.IndexedField;
+import com.courseplatform.search.SearchIndex;
+import com.courseplatform.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Searches the catalog in {@code src/test/resources/catalog/initial.json}
+ */
+@TestPropertySource(properties = {
+        "seed.import.mode=upsert",
+        "seed.import.location=classpath:catalog/initial.json"
+})
+class SearchServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void termsOfThreeOrMoreCharactersMatchThroughTrigramsIgnoringCase() {
+        SearchResponse response = searchService.search("VeLoCiTy", 10, null);
+
+        assertThat(response.getResults()).singleElement()
+                .extracting(SearchResultDto::getCourseId, SearchResultDto::getCourseTitle)
+                .containsExactly("import-mechanics", "Mechanics");
+        assertThat(response.getResults().get(0).getMatches())
+                .extracting(SearchMatchDto::getType, SearchMatchDto::getTopicTitle, SearchMatchDto::getSubtopicId)
+                .containsExactlyInAnyOrder(
+                        tuple("subtopic", "Kinematics", "import-velocity"),
+                        tuple("content", "Kinematics", "import-velocity"));
+    }
+
+    @Test
+    void shortTermsScanEveryField() {
+        SearchResponse response = searchService.search("dy", 10, null);
+
+        assertThat(response.getResults()).singleElement()
+                .extracting(result -> result.getMatches().get(0).getType(),
+                        result -> result.getMatches().get(0).getTopicTitle())
+                .containsExactly("topic", "Dynamics");
+    }
+
+    @Test
+    void termWithAMissingTrigramMatchesNothing() {
+        assertThat(searchService.search("velocities", 10, null).getResults()).isEmpty();
+    }
+
+    @Test
+    void fieldsPastMaxPostingsAreStillCandidates() {
+        // The course title alone has more postings than this
+        SearchIndex bounded = new SearchIndex(courseRepository, transactionTemplate, 1);
+        bounded.rebuild();
+
+        assertThat(bounded.candidates(SearchIndex.fold("Newton")))
+                .extracting(IndexedField::subtopicId)
+                .contains("import-newton");
+    }
+}
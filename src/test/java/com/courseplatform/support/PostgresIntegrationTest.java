@@ -0,0 +1,21 @@
+package com.courseplatform.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * The whole application against a real PostgreSQL (see {@link TestDatabase})
+ * with the {@code test} profile. Test classes with the same configuration
+ * share one context, and so one database: use ids of their own.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class PostgresIntegrationTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+}
@@ -0,0 +1,78 @@
+package com.courseplatform.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PostgreSQL for integration tests. Every application context gets a database
+ * of its own, created on a server shared by the whole test run: an embedded
+ * PostgreSQL, or the server at {@code TEST_DATABASE_URL} (an admin connection
+ * such as {@code jdbc:postgresql://localhost:5432/postgres}, with
+ * {@code TEST_DATABASE_USERNAME} / {@code TEST_DATABASE_PASSWORD}) where the
+ * embedded one can't run, e.g. as root in a container.
+ */
+public final class TestDatabase {
+
+    private static final String SERVER_URL = System.getenv("TEST_DATABASE_URL");
+    private static final String USERNAME = System.getenv().getOrDefault("TEST_DATABASE_USERNAME", "postgres");
+    private static final String PASSWORD = System.getenv().getOrDefault("TEST_DATABASE_PASSWORD", "");
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static EmbeddedPostgres embedded;
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Points the data source at a new, empty database; Flyway creates the schema
+     */
+    public static void register(DynamicPropertyRegistry registry) {
+        String url = createDatabase();
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> USERNAME);
+        registry.add("spring.datasource.password", () -> PASSWORD);
+    }
+
+    private static synchronized String createDatabase() {
+        String name = "test_" + ProcessHandle.current().pid() + "_" + DATABASES.incrementAndGet();
+        String serverUrl = serverUrl();
+        try (Connection connection = DriverManager.getConnection(serverUrl, USERNAME, PASSWORD);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create test database " + name, e);
+        }
+        // Same server, the new database in place of the admin one
+        return serverUrl.replaceFirst("/[^/?]*(\\?.*)?$", "/" + name + "$1");
+    }
+
+    private static String serverUrl() {
+        if (SERVER_URL != null && !SERVER_URL.isBlank()) {
+            return SERVER_URL;
+        }
+        if (embedded == null) {
+            try {
+                embedded = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start embedded PostgreSQL; "
+                        + "set TEST_DATABASE_URL to use an existing server", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    embedded.close();
+                } catch (IOException ignored) {
+                    // The process is exiting anyway
+                }
+            }));
+        }
+        return embedded.getJdbcUrl(USERNAME, "postgres");
+    }
+}